@@ -0,0 +1,73 @@
+package wordle.benchmarks;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@code WordCheck.checkWord()} answered by a {@code LocalDictionary}, with and
+ * without the verdict cache in front of it. Nothing here touches the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DictionaryBenchmark {
+    static final MethodHandle CHECK_WORD = Game.staticMethod("WordCheck", "checkWord", boolean.class,
+            String.class);
+    static final MethodHandle SET_DICTIONARY = Game.staticMethod("WordCheck", "setDictionary", void.class,
+            Game.type("Dictionary"));
+    static final MethodHandle SET_VERDICT_CACHE = Game.staticMethod("WordCheck", "setVerdictCache", void.class,
+            Game.type("VerdictCache"));
+    static final MethodHandle NEW_LOCAL_DICTIONARY = Game.constructor("LocalDictionary", File.class);
+    static final MethodHandle NEW_VERDICT_CACHE = Game.constructor("VerdictCache");
+
+    /** The number of words in the local word list. */
+    @Param({ "15000" })
+    public int dictionarySize;
+
+    /** Whether a {@code VerdictCache} sits in front of the dictionary. */
+    @Param({ "false", "true" })
+    public boolean verdictCache;
+
+    /** Words in the dictionary, cycled through so no single lookup is cached by the CPU. */
+    private String[] knownWords;
+    /** Words not in the dictionary. */
+    private String[] unknownWords;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        final String[] words = Words.random(dictionarySize * 2, 5, 42);
+        knownWords = Arrays.copyOf(words, 1024);
+        unknownWords = Arrays.copyOfRange(words, dictionarySize, dictionarySize + 1024);
+
+        final File wordList = File.createTempFile("dictionary", ".txt");
+        wordList.deleteOnExit();
+        Files.write(wordList.toPath(), Arrays.asList(Arrays.copyOf(words, dictionarySize)));
+
+        SET_DICTIONARY.invokeExact((Object) NEW_LOCAL_DICTIONARY.invokeExact(wordList));
+        SET_VERDICT_CACHE.invokeExact(verdictCache ? (Object) NEW_VERDICT_CACHE.invokeExact() : (Object) null);
+    }
+
+    @Benchmark
+    public boolean checkKnownWord() throws Throwable {
+        return (boolean) CHECK_WORD.invokeExact(knownWords[next++ & 1023]);
+    }
+
+    @Benchmark
+    public boolean checkUnknownWord() throws Throwable {
+        return (boolean) CHECK_WORD.invokeExact(unknownWords[next++ & 1023]);
+    }
+}
@@ -0,0 +1,104 @@
+package wordle.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Gives the benchmarks access to the game's classes.
+ * 
+ * The game lives in the default package, which classes in a named package
+ * cannot import, and JMH refuses to run benchmarks from the default package.
+ * The benchmarks therefore reach the game through method handles held in
+ * {@code static final} fields, which the JIT treats as constants and inlines
+ * just like a direct call, so the measurements are not skewed.
+ * 
+ * Game types in a handle's signature are widened to {@code Object}, so the
+ * handles can be called with {@code invokeExact()} from here.
+ */
+final class Game {
+    private Game() {
+    }
+
+    /**
+     * @param className The name of a class in the game's default package
+     * @return The class.
+     */
+    static Class<?> type(final String className) {
+        try {
+            return Class.forName(className);
+        } catch (final ClassNotFoundException missing) {
+            throw new IllegalStateException("The game's classes are not on the class path", missing);
+        }
+    }
+
+    /**
+     * Finds a static method of any visibility.
+     * 
+     * @return A handle to the method, with game types widened to {@code Object}.
+     */
+    static MethodHandle staticMethod(final String className, final String name, final Class<?> returnType,
+            final Class<?>... parameterTypes) {
+        final Class<?> owner = type(className);
+        try {
+            return widen(lookup(owner).findStatic(owner, name, MethodType.methodType(returnType, parameterTypes)));
+        } catch (final ReflectiveOperationException missing) {
+            throw new IllegalStateException(missing);
+        }
+    }
+
+    /**
+     * Finds an instance method of any visibility.
+     * 
+     * @return A handle to the method taking the receiver first, with game types
+     *         widened to {@code Object}.
+     */
+    static MethodHandle virtualMethod(final String className, final String name, final Class<?> returnType,
+            final Class<?>... parameterTypes) {
+        final Class<?> owner = type(className);
+        try {
+            return widen(lookup(owner).findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes)));
+        } catch (final ReflectiveOperationException missing) {
+            throw new IllegalStateException(missing);
+        }
+    }
+
+    /**
+     * Finds a constructor of any visibility.
+     * 
+     * @return A handle to the constructor, with game types widened to
+     *         {@code Object}.
+     */
+    static MethodHandle constructor(final String className, final Class<?>... parameterTypes) {
+        final Class<?> owner = type(className);
+        try {
+            return widen(lookup(owner).findConstructor(owner, MethodType.methodType(void.class, parameterTypes)));
+        } catch (final ReflectiveOperationException missing) {
+            throw new IllegalStateException(missing);
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(final Class<?> owner) throws IllegalAccessException {
+        // Everything on the class path shares the unnamed module, which is open to
+        // itself, so a private lookup is always granted
+        return MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+    }
+
+    /** Widens every game type in the signature of {@code handle} to {@code Object}. */
+    private static MethodHandle widen(final MethodHandle handle) {
+        MethodType widened = handle.type();
+        if (isGameType(widened.returnType())) {
+            widened = widened.changeReturnType(Object.class);
+        }
+        for (int i = 0; i < widened.parameterCount(); i++) {
+            if (isGameType(widened.parameterType(i))) {
+                widened = widened.changeParameterType(i, Object.class);
+            }
+        }
+        return handle.asType(widened);
+    }
+
+    private static boolean isGameType(final Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+}
@@ -0,0 +1,45 @@
+package wordle.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Parsing a word API response the way {@code RandomWord.generateWordsInArray()}
+ * does once the response has arrived.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParsingBenchmark {
+    static final MethodHandle PARSE_WORDS = Game.staticMethod("RandomWord", "parseWords", String[].class,
+            byte[].class);
+
+    /** The number of words in the response. */
+    @Param({ "25", "10000" })
+    public int wordAmount;
+
+    @Param({ "5" })
+    public int wordLength;
+
+    private byte[] response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        response = Words.asApiResponse(Words.random(wordAmount, wordLength, 7));
+    }
+
+    @Benchmark
+    public String[] parseResponse() throws Throwable {
+        return (String[]) PARSE_WORDS.invokeExact(response);
+    }
+}
@@ -0,0 +1,70 @@
+package wordle.benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scoring guesses against answers with {@code GuessScorer}, both as
+ * {@code String}s (what the Swing UI does) and as packed words (what the solver
+ * does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScoringBenchmark {
+    static final MethodHandle SCORE_STRINGS = Game.staticMethod("GuessScorer", "score", int.class,
+            CharSequence.class, CharSequence.class);
+    static final MethodHandle SCORE_PACKED = Game.staticMethod("GuessScorer", "score", int.class, int.class,
+            int.class);
+    static final MethodHandle PACK = Game.staticMethod("WordBank", "pack", int.class, CharSequence.class);
+
+    /** The number of pairs scored per benchmark invocation. */
+    static final int PAIRS = 1024;
+
+    private String[] guesses;
+    private String[] answers;
+    private int[] packedGuesses;
+    private int[] packedAnswers;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        guesses = Words.random(PAIRS, 5, 11);
+        answers = Words.random(PAIRS, 5, 13);
+        packedGuesses = new int[PAIRS];
+        packedAnswers = new int[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            packedGuesses[i] = (int) PACK.invokeExact((CharSequence) guesses[i]);
+            packedAnswers[i] = (int) PACK.invokeExact((CharSequence) answers[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int scoreStrings() throws Throwable {
+        int patterns = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            patterns += (int) SCORE_STRINGS.invokeExact((CharSequence) guesses[i], (CharSequence) answers[i]);
+        }
+        return patterns;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public int scorePacked() throws Throwable {
+        int patterns = 0;
+        for (int i = 0; i < PAIRS; i++) {
+            patterns += (int) SCORE_PACKED.invokeExact(packedGuesses[i], packedAnswers[i]);
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,54 @@
+package wordle.benchmarks;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Picking a Wordle out of a memory-mapped word bank, as
+ * {@code Wordle.generateWordle()} does for every new game.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SelectionBenchmark {
+    static final MethodHandle WRITE_BANK = Game.staticMethod("WordBank", "write", int.class, File.class,
+            int.class, String[].class);
+    static final MethodHandle OPEN_BANK = Game.staticMethod("WordBank", "open", Game.type("WordBank"),
+            File.class);
+    static final MethodHandle GENERATE_WORDLE = Game.staticMethod("Wordle", "generateWordle", String.class,
+            Game.type("WordBank"));
+
+    /** The number of words in the bank. */
+    @Param({ "250", "100000" })
+    public int bankSize;
+
+    /** The mapped bank, typed as {@code Object} since it is a game type. */
+    private Object bank;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Throwable {
+        final File bankFile = File.createTempFile("cache", ".bank");
+        bankFile.deleteOnExit();
+        final int written = (int) WRITE_BANK.invokeExact(bankFile, 5, Words.random(bankSize, 5, 3));
+        if (written != bankSize) {
+            throw new IllegalStateException("Only " + written + " of " + bankSize + " words were written");
+        }
+        bank = (Object) OPEN_BANK.invokeExact(bankFile);
+    }
+
+    @Benchmark
+    public String pickWordle() throws Throwable {
+        return (String) GENERATE_WORDLE.invokeExact(bank);
+    }
+}
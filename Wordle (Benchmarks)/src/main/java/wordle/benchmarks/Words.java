@@ -0,0 +1,45 @@
+package wordle.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/** Seeded, reproducible test data shared by the benchmarks. */
+final class Words {
+    private Words() {
+    }
+
+    /**
+     * @param amount
+     * @param length
+     * @param seed
+     * @return {@code amount} random lowercase words of {@code length} letters.
+     */
+    static String[] random(final int amount, final int length, final long seed) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final String[] words = new String[amount];
+        final char[] letters = new char[length];
+        for (int i = 0; i < amount; i++) {
+            for (int j = 0; j < length; j++) {
+                letters[j] = (char) ('a' + random.nextInt(26));
+            }
+            words[i] = new String(letters);
+        }
+        return words;
+    }
+
+    /**
+     * @param words
+     * @return {@code words} as the JSON array the word API responds with.
+     */
+    static byte[] asApiResponse(final String[] words) {
+        final StringBuilder response = new StringBuilder(words.length * (words[0].length() + 3) + 2);
+        response.append('[');
+        for (int i = 0; i < words.length; i++) {
+            if (i > 0) {
+                response.append(',');
+            }
+            response.append('"').append(words[i]).append('"');
+        }
+        return response.append(']').toString().getBytes(StandardCharsets.US_ASCII);
+    }
+}
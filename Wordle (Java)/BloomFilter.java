@@ -0,0 +1,412 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A compact, probabilistic set of words that answers "definitely not a word"
+ * or "maybe a word" in a few nanoseconds, without any lookups.
+ * 
+ * Each word sets {@code hashCount} bits of a bit array, chosen by double
+ * hashing a 64-bit hash of the word. A word with any of its bits unset was
+ * never added; a word with all of them set probably was, but may be a false
+ * positive. The number of bits and hashes are sized from the expected number of
+ * words and the wanted false-positive rate, so a 1% rate costs under 10 bits
+ * (about 1.2 bytes) per word.
+ * 
+ * Filters are saved in a small binary file, in big-endian order:
+ * 
+ * <pre>
+ * int    MAGIC ("WBLM")
+ * byte   VERSION
+ * byte   hash count
+ * short  reserved (0)
+ * long   bit count
+ * long   number of words added
+ * long   hash of the word list the filter was built from (0 if none)
+ * long[] bits
+ * </pre>
+ * 
+ * The hash lets {@code openOrBuild()} notice when the word list has changed
+ * since the filter was built, and rebuild it.
+ * 
+ * Lookups are thread-safe; adding words is not, so filters should be filled
+ * before they are shared.
+ */
+final public class BloomFilter {
+    /** The first four bytes of every saved filter: "WBLM". */
+    final public static int MAGIC = 0x57424C4D;
+    /** The version of the format written by this class. */
+    final public static byte VERSION = 2;
+    /** The false-positive rate used when none is given. */
+    final public static double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    final private long[] bits;
+    final private long bitCount;
+    final private int hashCount;
+    private long insertions;
+    /** The {@code hash()} of the word list the filter was built from, or 0. */
+    private long wordListHash;
+
+    final private LongAdder queries = new LongAdder();
+    final private LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates an empty filter sized for {@code expectedWords} words at
+     * {@code falsePositiveRate}.
+     * 
+     * @param expectedWords     (> 0) How many words will be added
+     * @param falsePositiveRate (0 < rate < 1) The share of non-words that should
+     *                          be answered with "maybe"
+     */
+    public BloomFilter(final long expectedWords, final double falsePositiveRate) {
+        if (expectedWords < 1 || !(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("Invalid filter size or false-positive rate");
+        }
+        // The optimal sizes: m = -n ln(p) / ln(2)^2 bits and k = (m / n) ln(2) hashes
+        final long optimalBits = (long) Math.ceil(-expectedWords * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2)));
+        bitCount = Math.max(Long.SIZE, (optimalBits + Long.SIZE - 1) / Long.SIZE * Long.SIZE);
+        hashCount = (int) Math.max(1, Math.min(Byte.MAX_VALUE,
+                Math.round((double) bitCount / expectedWords * Math.log(2))));
+        bits = new long[(int) (bitCount / Long.SIZE)];
+    }
+
+    private BloomFilter(final long[] bits, final int hashCount, final long insertions, final long wordListHash) {
+        this.bits = bits;
+        this.bitCount = (long) bits.length * Long.SIZE;
+        this.hashCount = hashCount;
+        this.insertions = insertions;
+        this.wordListHash = wordListHash;
+    }
+
+    /**
+     * Builds a filter holding every word of a word list, one word per line.
+     * Blank lines and lines containing non-alphabetical characters are skipped,
+     * just like in {@code LocalDictionary}.
+     * 
+     * @param wordList
+     * @param falsePositiveRate (0 < rate < 1)
+     * @return The filled filter.
+     * @throws IOException If {@code wordList} could not be read
+     */
+    final public static BloomFilter fromWordList(final File wordList, final double falsePositiveRate)
+            throws IOException {
+        final long wordListHash = hash(wordList);
+        // Counted first so the filter can be sized exactly
+        long lineCount = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(wordList))) {
+            while (reader.readLine() != null) {
+                lineCount++;
+            }
+        }
+
+        final BloomFilter filter = new BloomFilter(Math.max(1, lineCount), falsePositiveRate);
+        try (BufferedReader reader = new BufferedReader(new FileReader(wordList))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim().toLowerCase();
+                if (WordCheck.isAlphabetical(line)) {
+                    filter.add(line);
+                }
+            }
+        }
+        filter.wordListHash = wordListHash;
+        return filter;
+    }
+
+    /**
+     * Loads the filter in {@code file} if it was built from {@code wordList} as
+     * it is now, otherwise (re)builds it from {@code wordList} and saves it.
+     * 
+     * @param file
+     * @param wordList
+     * @param falsePositiveRate (0 < rate < 1) Only used if the filter is rebuilt
+     * @return The up-to-date filter.
+     * @throws IOException If {@code wordList} could not be read, or the filter
+     *                     could not be saved
+     */
+    final public static BloomFilter openOrBuild(final File file, final File wordList,
+            final double falsePositiveRate) throws IOException {
+        if (file.isFile()) {
+            try {
+                final BloomFilter existing = load(file);
+                if (existing.isBuiltFrom(wordList)) {
+                    return existing;
+                }
+            } catch (final IOException unusable) {
+                // Rebuilding below replaces whatever is in the way
+            }
+        }
+        final BloomFilter filter = fromWordList(wordList, falsePositiveRate);
+        filter.save(file);
+        return filter;
+    }
+
+    /**
+     * @param wordList
+     * @return {@code true} if the filter was built from {@code wordList} and the
+     *         list has not changed since.
+     * @throws IOException If {@code wordList} could not be read
+     */
+    public boolean isBuiltFrom(final File wordList) throws IOException {
+        return wordListHash != 0 && wordListHash == hash(wordList);
+    }
+
+    /**
+     * Hashes the contents of {@code wordList} with 64-bit FNV-1a, so filters
+     * built from different word lists can be told apart.
+     * 
+     * @param wordList
+     * @return The hash stored in the header of a filter built from
+     *         {@code wordList}.
+     * @throws IOException If {@code wordList} could not be read
+     */
+    final public static long hash(final File wordList) throws IOException {
+        long hash = 0xcbf29ce484222325L;
+        try (FileInputStream input = new FileInputStream(wordList)) {
+            final byte[] chunk = new byte[1 << 16];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    hash = (hash ^ (chunk[i] & 0xFF)) * 0x100000001b3L;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Adds {@code word} to the filter.
+     * 
+     * @param word A lowercase word
+     */
+    public void add(final CharSequence word) {
+        final long hash = hash(word);
+        final long hash1 = hash;
+        // A second, independent-looking 64-bit hash; odd, so every probe differs
+        final long hash2 = Long.rotateLeft(hash, 32) * 0x9e3779b97f4a7c15L | 1;
+        for (int i = 0; i < hashCount; i++) {
+            final long bit = Math.unsignedMultiplyHigh(hash1 + i * hash2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    /**
+     * Checks whether {@code word} may have been added.
+     * 
+     * @param word A lowercase word
+     * @return {@code false} if {@code word} was definitely never added, or
+     *         {@code true} if it probably was.
+     */
+    public boolean mightContain(final CharSequence word) {
+        queries.increment();
+        final long hash = hash(word);
+        final long hash1 = hash;
+        final long hash2 = Long.rotateLeft(hash, 32) * 0x9e3779b97f4a7c15L | 1;
+        for (int i = 0; i < hashCount; i++) {
+            // Scales the probe into [0, bitCount) with a multiply rather than a division
+            final long bit = Math.unsignedMultiplyHigh(hash1 + i * hash2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                rejections.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hashes {@code word} with 64-bit FNV-1a, then mixes the result so that every
+     * bit depends on every character.
+     */
+    private static long hash(final CharSequence word) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < word.length(); i++) {
+            hash = (hash ^ word.charAt(i)) * 0x100000001b3L;
+        }
+        // The finalizer of MurmurHash3
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * Writes the filter to {@code file}. The filter is written to a temporary file
+     * of its own first and then atomically moved over {@code file}, so an
+     * interrupted save never leaves a broken file behind, and processes saving
+     * the same filter at once never write into each other's file.
+     * 
+     * @param file
+     * @throws IOException If {@code file} could not be written
+     */
+    public void save(final File file) throws IOException {
+        final Path target = file.toPath().toAbsolutePath();
+        final Path temporary = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            write(temporary);
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException notAtomic) {
+                // Some file systems cannot rename atomically; a plain replace is the next best
+                // thing
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary); // Only still there if the save failed
+        }
+    }
+
+    /** Writes the filter in the format read by {@code load()}. */
+    private void write(final Path file) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file)))) {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeByte(hashCount);
+            output.writeShort(0);
+            output.writeLong(bitCount);
+            output.writeLong(insertions);
+            output.writeLong(wordListHash);
+            for (final long word : bits) {
+                output.writeLong(word);
+            }
+        }
+    }
+
+    /**
+     * Reads a filter written by {@code save()}.
+     * 
+     * @param file
+     * @return The loaded filter.
+     * @throws IOException If {@code file} could not be read or is not a filter
+     */
+    final public static BloomFilter load(final File file) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException(file + " is not a Bloom filter");
+            }
+            final byte version = input.readByte();
+            if (version != VERSION) {
+                throw new IOException(file + " is a Bloom filter of unsupported version " + version);
+            }
+            final int hashCount = input.readByte();
+            input.readShort();
+            final long bitCount = input.readLong();
+            final long insertions = input.readLong();
+            final long wordListHash = input.readLong();
+            if (hashCount < 1 || bitCount < Long.SIZE || bitCount % Long.SIZE != 0
+                    || bitCount / Long.SIZE > Integer.MAX_VALUE || bitCount / Long.SIZE * Long.BYTES > file.length()) {
+                throw new IOException(file + " has an invalid Bloom filter header");
+            }
+
+            final long[] bits = new long[(int) (bitCount / Long.SIZE)];
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] = input.readLong();
+            }
+            return new BloomFilter(bits, hashCount, insertions, wordListHash);
+        }
+    }
+
+    /**
+     * @return The false-positive rate expected for the words added so far,
+     *         {@code (1 - e^(-kn/m))^k}.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions / bitCount), hashCount);
+    }
+
+    /** @return The size of the bit array, in bytes. */
+    public long memoryBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /** @return The number of words added. */
+    public long getInsertions() {
+        return insertions;
+    }
+
+    /** @return How many times {@code mightContain()} has been called. */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /** @return How many queries were answered "definitely not a word". */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "BloomFilter[words=%d, bits=%d, hashes=%d, memory=%d KB, expectedFalsePositiveRate=%.4f%%, queries=%d, rejections=%d]",
+                insertions, bitCount, hashCount, memoryBytes() / 1024, expectedFalsePositiveRate() * 100,
+                getQueries(), getRejections());
+    }
+
+    // Builds a filter from a word list and saves it, then reports its size and
+    // measured false-positive rate
+    // Arguments: [word list (default: dictionary.txt)] [output (default:
+    // dictionary.bloom)] [false-positive rate (default: 0.01)]
+    public static void main(final String[] args) throws IOException {
+        final File wordList = new File(args.length > 0 ? args[0] : WordCheck.defaultDictionaryFileName);
+        final File output = new File(args.length > 1 ? args[1] : WordCheck.defaultWordFilterFileName);
+        final double falsePositiveRate = args.length > 2 ? Double.parseDouble(args[2])
+                : DEFAULT_FALSE_POSITIVE_RATE;
+
+        long startTime = System.nanoTime();
+        final BloomFilter filter = fromWordList(wordList, falsePositiveRate);
+        filter.save(output);
+        System.out.printf("Built %s from %s in %d ms\n", output, wordList, (System.nanoTime() - startTime) / 1000000);
+
+        final BloomFilter loaded = load(output);
+        System.out.println(loaded);
+
+        // Random strings are almost never words, so nearly every "maybe" among them
+        // is a false positive. They are made up front so only lookups are timed
+        final Random random = new Random(1);
+        final String[] gibberish = new String[100000];
+        final char[] letters = new char[9];
+        for (int i = 0; i < gibberish.length; i++) {
+            for (int j = 0; j < letters.length; j++) {
+                letters[j] = (char) ('a' + random.nextInt(26));
+            }
+            gibberish[i] = new String(letters);
+        }
+        final int rounds = 10;
+        int maybes = 0;
+        startTime = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (final String candidate : gibberish) {
+                if (loaded.mightContain(candidate)) {
+                    maybes++;
+                }
+            }
+        }
+        final long lookups = (long) rounds * gibberish.length;
+        System.out.printf("Measured false-positive rate: %.4f%% over %d random strings, %d ns per lookup\n",
+                100.0 * maybes / lookups, gibberish.length, (System.nanoTime() - startTime) / lookups);
+    }
+}
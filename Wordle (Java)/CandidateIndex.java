@@ -0,0 +1,113 @@
+/**
+ * Precomputed bitsets over a list of five-letter words, used by
+ * {@code CandidateSet} to narrow the list down after each guess.
+ * 
+ * Bit {@code i} of every bitset stands for word {@code i} of the list. For every
+ * position and letter, there is a bitset of the words with that letter at that
+ * position; for every letter and count, there is a bitset of the words holding
+ * at least that many copies of the letter. An index is immutable once built, so
+ * any number of {@code CandidateSet}s and threads can share it.
+ */
+final public class CandidateIndex {
+    /** The number of letters in the alphabet. */
+    final static int LETTERS = 26;
+    /** The number of letters in every indexed word. */
+    final static int WORD_LENGTH = GameState.WORD_LENGTH;
+
+    /** The packed words, in the order given to the constructor. */
+    final private int[] words;
+    /** The number of {@code long}s making up each bitset. */
+    final private int bitsetLength;
+
+    /**
+     * {@code positionLetter[position * LETTERS + letter]} holds the words with
+     * {@code letter} at {@code position}.
+     */
+    final private long[][] positionLetter;
+    /**
+     * {@code letterCount[letter * (WORD_LENGTH + 1) + count]} holds the words
+     * containing at least {@code count} copies of {@code letter}.
+     */
+    final private long[][] letterCount;
+
+    /**
+     * Indexes every word of {@code bank}.
+     * 
+     * @param bank A bank of five-letter words
+     */
+    public CandidateIndex(final WordBank bank) {
+        this(bank.toPackedArray());
+    }
+
+    /**
+     * Indexes {@code words}.
+     * 
+     * @param words Five-letter words packed by {@code WordBank.pack()}
+     */
+    public CandidateIndex(final int[] words) {
+        this.words = words.clone();
+        bitsetLength = (words.length + 63) >>> 6;
+
+        positionLetter = new long[WORD_LENGTH * LETTERS][bitsetLength];
+        letterCount = new long[LETTERS * (WORD_LENGTH + 1)][bitsetLength];
+
+        final int[] counts = new int[LETTERS];
+        for (int i = 0; i < words.length; i++) {
+            final int wordIndex = i >>> 6;
+            final long wordBit = 1L << i;
+
+            for (int position = 0; position < WORD_LENGTH; position++) {
+                final int letter = WordBank.letterAt(words[i], WORD_LENGTH, position);
+                positionLetter[position * LETTERS + letter][wordIndex] |= wordBit;
+                counts[letter]++;
+            }
+            for (int position = 0; position < WORD_LENGTH; position++) {
+                final int letter = WordBank.letterAt(words[i], WORD_LENGTH, position);
+                // Every count from 0 up to the real one is "at least"
+                for (int count = 0; count <= counts[letter]; count++) {
+                    letterCount[letter * (WORD_LENGTH + 1) + count][wordIndex] |= wordBit;
+                }
+                counts[letter] = 0;
+            }
+        }
+    }
+
+    /**
+     * @return A new {@code CandidateSet} in which every indexed word is still a
+     *         candidate.
+     */
+    public CandidateSet newSet() {
+        return new CandidateSet(this);
+    }
+
+    /** @return The number of indexed words. */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * @param index (0 - {@code size() - 1})
+     * @return The packed word at {@code index}.
+     */
+    public int wordAt(final int index) {
+        return words[index];
+    }
+
+    /** @return The number of {@code long}s making up each bitset. */
+    int bitsetLength() {
+        return bitsetLength;
+    }
+
+    /** @return The bitset of the words with {@code letter} at {@code position}. */
+    long[] withLetterAt(final int position, final int letter) {
+        return positionLetter[position * LETTERS + letter];
+    }
+
+    /**
+     * @return The bitset of the words containing at least {@code count} copies of
+     *         {@code letter}.
+     */
+    long[] withAtLeast(final int letter, final int count) {
+        return letterCount[letter * (WORD_LENGTH + 1) + count];
+    }
+}
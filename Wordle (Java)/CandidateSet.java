@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * The words of a {@code CandidateIndex} that could still be the Wordle.
+ * 
+ * Applying the feedback of a guess narrows the set down with a handful of
+ * bitwise AND/ANDNOT passes over the index's bitsets, so the words themselves
+ * are never rescanned or rescored. Each letter of the guess contributes:
+ * 
+ * <ul>
+ * <li>a green: keep the words with that letter at that position;</li>
+ * <li>a yellow or gray: drop the words with that letter at that position;</li>
+ * <li>greens and yellows of a letter: keep the words with at least that many
+ * copies of it;</li>
+ * <li>a gray of a letter: drop the words with any more copies of it than the
+ * greens and yellows account for.</li>
+ * </ul>
+ */
+final public class CandidateSet {
+    final private CandidateIndex index;
+    /** Bit {@code i} is set while word {@code i} of {@code index} is a candidate. */
+    final private long[] bits;
+
+    /**
+     * Creates a set in which every word of {@code index} is a candidate.
+     * 
+     * @param index
+     */
+    public CandidateSet(final CandidateIndex index) {
+        this.index = index;
+        bits = new long[index.bitsetLength()];
+        reset();
+    }
+
+    private CandidateSet(final CandidateIndex index, final long[] bits) {
+        this.index = index;
+        this.bits = bits;
+    }
+
+    /** Makes every word of the index a candidate again. */
+    public void reset() {
+        Arrays.fill(bits, -1L);
+        // Clearing the bits past the last word so they are never counted
+        final int leftover = index.size() & 63;
+        if (leftover != 0) {
+            bits[bits.length - 1] = (1L << leftover) - 1;
+        }
+    }
+
+    /**
+     * Removes every candidate that could not have produced {@code pattern} when
+     * {@code guess} was played against it.
+     * 
+     * @param guess   A five-letter guess packed by {@code WordBank.pack()}
+     * @param pattern The {@code GuessScorer} pattern {@code guess} scored
+     */
+    public void apply(final int guess, final int pattern) {
+        // How many greens and yellows each letter earned, and whether it was also gray
+        int grayLetters = 0;
+        final int[] found = new int[CandidateIndex.LETTERS];
+
+        int remaining = pattern;
+        for (int position = 0; position < CandidateIndex.WORD_LENGTH; position++, remaining /= 3) {
+            final int letter = WordBank.letterAt(guess, CandidateIndex.WORD_LENGTH, position);
+            final long[] letterHere = index.withLetterAt(position, letter);
+            if (remaining % 3 == GuessScorer.GREEN) {
+                and(letterHere);
+                found[letter]++;
+            } else {
+                andNot(letterHere);
+                if (remaining % 3 == GuessScorer.YELLOW) {
+                    found[letter]++;
+                } else {
+                    grayLetters |= 1 << letter;
+                }
+            }
+        }
+
+        for (int position = 0; position < CandidateIndex.WORD_LENGTH; position++) {
+            final int letter = WordBank.letterAt(guess, CandidateIndex.WORD_LENGTH, position);
+            if (found[letter] < 0) { // Already handled this letter
+                continue;
+            }
+            if (found[letter] > 0) {
+                and(index.withAtLeast(letter, found[letter]));
+            }
+            if ((grayLetters & (1 << letter)) != 0) {
+                // A gray copy means the answer holds exactly as many copies as were found
+                andNot(index.withAtLeast(letter, found[letter] + 1));
+            }
+            found[letter] = -1;
+        }
+    }
+
+    /**
+     * Applies every guess scored so far in {@code state}.
+     * 
+     * @param state
+     */
+    public void apply(final GameState state) {
+        for (int i = 0; i < state.getAttempt(); i++) {
+            apply(state.getGuess(i), state.getPattern(i));
+        }
+    }
+
+    /** @return The number of words that are still candidates. */
+    public int remaining() {
+        int count = 0;
+        for (final long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @param wordIndex The index of a word within the index
+     * @return {@code true} if that word is still a candidate.
+     */
+    public boolean contains(final int wordIndex) {
+        return wordIndex >= 0 && wordIndex < index.size() && (bits[wordIndex >>> 6] & (1L << wordIndex)) != 0;
+    }
+
+    /**
+     * @return An iterator over the indices (within the index) of the words that
+     *         are still candidates, in ascending order.
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            /** The bits of 'bits[word]' not yet handed out. */
+            private long current = bits.length > 0 ? bits[0] : 0;
+            private int word = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (current == 0 && word < bits.length - 1) {
+                    current = bits[++word];
+                }
+                return current != 0;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final int next = (word << 6) + Long.numberOfTrailingZeros(current);
+                current &= current - 1; // Clearing the lowest set bit
+                return next;
+            }
+        };
+    }
+
+    /**
+     * @return The packed words that are still candidates, in index order.
+     */
+    public int[] toPackedArray() {
+        final int[] candidates = new int[remaining()];
+        final PrimitiveIterator.OfInt iterator = iterator();
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = index.wordAt(iterator.nextInt());
+        }
+        return candidates;
+    }
+
+    /** @return An independent copy of this set, sharing the same index. */
+    public CandidateSet copy() {
+        return new CandidateSet(index, bits.clone());
+    }
+
+    private void and(final long[] other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= other[i];
+        }
+    }
+
+    private void andNot(final long[] other) {
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] &= ~other[i];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A source of truth for whether a given string is a valid English word.
+ * {@code WordCheck.checkWord()} answers every lookup through a
+ * {@code Dictionary}, so swapping the implementation changes where words are
+ * verified (a local word list, the online dictionary API, etc.).
+ */
+public interface Dictionary {
+    /**
+     * Checks whether {@code word} is a known word.
+     * 
+     * @param word A lowercase {@code String} made up of only alphabetical
+     *             characters
+     * @return {@code true} if {@code word} is a known word, otherwise
+     *         {@code false}.
+     * @throws IOException If the dictionary could not be consulted (such as a
+     *                     network failure), meaning no verdict could be made.
+     */
+    boolean contains(String word) throws IOException;
+
+    /**
+     * Like {@code contains()}, but without blocking the calling thread.
+     * Dictionaries that answer from memory simply answer right away; remote
+     * dictionaries override this to send their request asynchronously.
+     * 
+     * @param word A lowercase {@code String} made up of only alphabetical
+     *             characters
+     * @return A future completed with whether {@code word} is a known word, or
+     *         completed exceptionally if the dictionary could not be consulted.
+     */
+    default CompletableFuture<Boolean> containsAsync(final String word) {
+        try {
+            return CompletableFuture.completedFuture(contains(word));
+        } catch (final IOException failure) {
+            return CompletableFuture.failedFuture(failure);
+        }
+    }
+
+    /**
+     * Whether every lookup is answered from a fixed word list, with nothing
+     * consulted beyond it. Only then is a word missing from that list definitely
+     * not a word, so only then may {@code WordCheck}'s word filter reject words
+     * on the dictionary's behalf.
+     * 
+     * @return {@code false} unless overridden.
+     */
+    default boolean isSelfContained() {
+        return false;
+    }
+}
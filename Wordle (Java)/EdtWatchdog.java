@@ -0,0 +1,257 @@
+import java.awt.EventQueue;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notices when the Event Dispatch Thread stops processing events, which the
+ * player sees as a frozen window, and works out which method froze it.
+ * 
+ * A daemon thread posts a tiny "heartbeat" event to the EDT and checks every
+ * {@code checkIntervalMillis} whether it has run yet. Once a heartbeat has gone
+ * unprocessed for longer than {@code thresholdMillis}, the EDT is stalled, and
+ * its stack is sampled on every check until the heartbeat finally runs. The
+ * stall is then blamed on the game method that shows up most often at the top of
+ * those samples (the innermost frame outside of the JDK), logged along with the
+ * call it was blocked in, and added to a per-method summary. Stall durations
+ * are also recorded as the {@code edtStall} metric, so they appear in
+ * {@code Metrics.dump()} and over JMX.
+ * 
+ * The watchdog is opt-in: nothing runs until {@code start()} is called, and
+ * checking costs one posted event per interval.
+ */
+final public class EdtWatchdog {
+    /** The default time the EDT may go without processing events: 200 ms. */
+    final public static long DEFAULT_THRESHOLD_MILLIS = 200;
+    /** How many frames of the first sample are printed with each stall. */
+    final public static int LOGGED_FRAMES = 20;
+
+    /** How long, in total and at worst, the stalls blamed on one method took. */
+    final private static class StallTotals {
+        long count;
+        long totalNanos;
+        long maxNanos;
+    }
+
+    final private long thresholdNanos;
+    final private long checkIntervalMillis;
+    final private PrintStream log;
+    final private Metric stallMetric = Metrics.get("edtStall");
+
+    final private Thread watcher;
+    private volatile boolean isRunning = false;
+
+    /** When the unprocessed heartbeat was posted, or 0 if none is pending. */
+    private volatile long pendingSince = 0;
+    /** How long the last processed heartbeat waited. */
+    private volatile long lastHeartbeatNanos;
+    /** The EDT, as of the last heartbeat; it is replaced if it ever dies. */
+    private volatile Thread eventDispatchThread;
+
+    // Only touched by the watcher thread
+    final private ArrayList<StackTraceElement[]> samples = new ArrayList<StackTraceElement[]>();
+    /** Whether the pending heartbeat has waited past the threshold. */
+    private boolean isStalled = false;
+
+    /** Keyed by the method each stall was blamed on; guarded by itself. */
+    final private TreeMap<String, StallTotals> totals = new TreeMap<String, StallTotals>();
+
+    /**
+     * Creates a watchdog using {@code DEFAULT_THRESHOLD_MILLIS}, logging to
+     * {@code System.err}. Call {@code start()} to begin watching.
+     */
+    public EdtWatchdog() {
+        this(DEFAULT_THRESHOLD_MILLIS, System.err);
+    }
+
+    /**
+     * Creates a watchdog. Call {@code start()} to begin watching.
+     * 
+     * @param thresholdMillis (> 0) How long the EDT may go without processing
+     *                        events before it counts as stalled
+     * @param log             Receives a report of every stall once it ends
+     */
+    public EdtWatchdog(final long thresholdMillis, final PrintStream log) {
+        if (thresholdMillis < 1) {
+            throw new IllegalArgumentException("thresholdMillis must be positive");
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        // Checking four times per threshold catches stalls close to when they begin
+        this.checkIntervalMillis = Math.max(1, thresholdMillis / 4);
+        this.log = log;
+
+        watcher = new Thread(this::watch, "EdtWatchdog");
+        watcher.setDaemon(true);
+    }
+
+    /** Begins watching the EDT in the background. */
+    public void start() {
+        isRunning = true;
+        watcher.start();
+    }
+
+    /** Stops watching; a stall in progress is not reported. */
+    public void stop() {
+        isRunning = false;
+        watcher.interrupt();
+    }
+
+    private void watch() {
+        while (isRunning) {
+            try {
+                Thread.sleep(checkIntervalMillis);
+            } catch (final InterruptedException interrupt) {
+                return;
+            }
+            check();
+        }
+    }
+
+    /** Posts a heartbeat if none is pending, otherwise checks how long it has waited. */
+    private void check() {
+        final long postedAt = pendingSince;
+        if (postedAt == 0) {
+            if (isStalled) { // The heartbeat ran, so the stall is over
+                isStalled = false;
+                finishStall(lastHeartbeatNanos);
+            }
+            final long now = System.nanoTime();
+            pendingSince = now;
+            EventQueue.invokeLater(() -> {
+                eventDispatchThread = Thread.currentThread();
+                lastHeartbeatNanos = System.nanoTime() - now;
+                pendingSince = 0;
+            });
+        } else if (System.nanoTime() - postedAt >= thresholdNanos) {
+            isStalled = true;
+            Thread edt = eventDispatchThread;
+            if (edt == null || !edt.isAlive()) {
+                // Stalled before any heartbeat ran, such as while the window is being
+                // built, or the EDT died and was replaced since the last one
+                edt = findEventDispatchThread();
+                eventDispatchThread = edt;
+            }
+            if (edt != null) {
+                samples.add(edt.getStackTrace());
+            }
+        }
+    }
+
+    /**
+     * Looks the EDT up by name, for when no heartbeat has run on it yet.
+     * 
+     * @return The live EDT, or {@code null} if there is none.
+     */
+    private static Thread findEventDispatchThread() {
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("AWT-EventQueue-") && thread.isAlive()) {
+                return thread;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Blames, logs and records the stall that just ended. Its duration is
+     * recorded even if the EDT could not be sampled.
+     */
+    private void finishStall(final long durationNanos) {
+        final String blamed = samples.isEmpty() ? "(unknown)" : blame(samples);
+        final StackTraceElement[] firstSample = samples.isEmpty() ? new StackTraceElement[0] : samples.get(0);
+        samples.clear();
+
+        stallMetric.recordDuration(durationNanos);
+        synchronized (totals) {
+            final StallTotals stall = totals.computeIfAbsent(blamed, ignored -> new StallTotals());
+            stall.count++;
+            stall.totalNanos += durationNanos;
+            stall.maxNanos = Math.max(stall.maxNanos, durationNanos);
+        }
+
+        final StringBuilder report = new StringBuilder(String.format("EDT stalled for %d ms in %s",
+                TimeUnit.NANOSECONDS.toMillis(durationNanos), blamed));
+        if (firstSample.length > 0) {
+            report.append(" (blocked in ").append(firstSample[0]).append(')');
+        }
+        for (int i = 0; i < Math.min(LOGGED_FRAMES, firstSample.length); i++) {
+            report.append("\n\tat ").append(firstSample[i]);
+        }
+        log.println(report);
+    }
+
+    /**
+     * @return The game method seen most often as the innermost non-JDK frame
+     *         across {@code samples}, or the innermost frame of the first sample
+     *         if the game never shows up (such as a stall inside Swing itself).
+     */
+    private static String blame(final ArrayList<StackTraceElement[]> samples) {
+        final HashMap<String, Integer> counts = new HashMap<String, Integer>();
+        String blamed = null;
+        int mostSeen = 0;
+        for (final StackTraceElement[] sample : samples) {
+            for (final StackTraceElement frame : sample) {
+                if (!isJdkFrame(frame)) {
+                    final String method = frame.getClassName() + "." + frame.getMethodName();
+                    final int seen = counts.merge(method, 1, Integer::sum);
+                    if (seen > mostSeen) {
+                        mostSeen = seen;
+                        blamed = method;
+                    }
+                    break;
+                }
+            }
+        }
+        if (blamed == null) {
+            final StackTraceElement[] first = samples.get(0);
+            blamed = first.length == 0 ? "(unknown)"
+                    : first[0].getClassName() + "." + first[0].getMethodName();
+        }
+        return blamed;
+    }
+
+    private static boolean isJdkFrame(final StackTraceElement frame) {
+        final String className = frame.getClassName();
+        return className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("sun.")
+                || className.startsWith("jdk.") || className.startsWith("com.sun.");
+    }
+
+    /**
+     * @return The number of stalls reported so far.
+     */
+    public long getStallCount() {
+        return stallMetric.getCalls();
+    }
+
+    /**
+     * @return How many stalls have been blamed on each method.
+     */
+    public Map<String, Long> getStallsByMethod() {
+        final TreeMap<String, Long> counts = new TreeMap<String, Long>();
+        synchronized (totals) {
+            totals.forEach((method, stall) -> counts.put(method, stall.count));
+        }
+        return counts;
+    }
+
+    /**
+     * @return Every method stalls were blamed on, with how many stalls and how
+     *         long they took, followed by the overall stall latencies.
+     */
+    public String summary() {
+        final StringBuilder summary = new StringBuilder(String.format("%-40s %7s %10s %10s\n", "EDT stalls in",
+                "count", "total ms", "max ms"));
+        synchronized (totals) {
+            totals.forEach((method, stall) -> summary.append(String.format("%-40s %7d %10d %10d\n", method,
+                    stall.count, TimeUnit.NANOSECONDS.toMillis(stall.totalNanos),
+                    TimeUnit.NANOSECONDS.toMillis(stall.maxNanos))));
+        }
+        final LatencyHistogram latency = stallMetric.getLatency();
+        summary.append(String.format("%d stalls over %d ms; p50 %.1f ms, p99 %.1f ms, max %.1f ms\n",
+                latency.count(), TimeUnit.NANOSECONDS.toMillis(thresholdNanos), latency.percentile(50) / 1e6,
+                latency.percentile(99) / 1e6, latency.max() / 1e6));
+        return summary.toString();
+    }
+}
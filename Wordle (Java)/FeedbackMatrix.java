@@ -0,0 +1,253 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed table of the pattern every guess scores against every answer,
+ * stored in a memory-mapped file so that looking up a score is a single read.
+ * 
+ * The file layout is, in big-endian order:
+ * 
+ * <pre>
+ * int    MAGIC ("WFBM")
+ * byte   VERSION
+ * byte   word length
+ * short  reserved (0)
+ * int    guess count
+ * int    answer count
+ * long   hash of the guesses and answers the matrix was built from
+ * byte[] patterns, one per (guess, answer) pair, row by row
+ * </pre>
+ * 
+ * The hash lets {@code openOrBuild()} notice when the word bank has changed
+ * since the matrix was built, and rebuild it.
+ */
+final public class FeedbackMatrix {
+    /** The first four bytes of every matrix: "WFBM". */
+    final public static int MAGIC = 0x5746424D;
+    /** The version of the format written by this class. */
+    final public static byte VERSION = 1;
+    /** The size of the header preceding the patterns, in bytes. */
+    final public static int HEADER_SIZE = 24;
+
+    /** The mapped contents of the matrix file, header included. */
+    final private ByteBuffer buffer;
+    final private int guessCount;
+    final private int answerCount;
+    final private long wordsHash;
+
+    private FeedbackMatrix(final ByteBuffer buffer, final int guessCount, final int answerCount,
+            final long wordsHash) {
+        this.buffer = buffer;
+        this.guessCount = guessCount;
+        this.answerCount = answerCount;
+        this.wordsHash = wordsHash;
+    }
+
+    /**
+     * Computes the pattern of every packed guess against every packed answer and
+     * writes them to {@code file}, replacing whatever was there. Rows are computed
+     * in parallel, and the matrix is written to a temporary file first and then
+     * moved over {@code file}.
+     * 
+     * @param file
+     * @param guesses Five-letter guesses packed by {@code WordBank.pack()}
+     * @param answers Five-letter answers packed by {@code WordBank.pack()}
+     * @throws IOException If {@code file} could not be written
+     */
+    final public static void build(final File file, final int[] guesses, final int[] answers) throws IOException {
+        final long cells = (long) guesses.length * answers.length;
+        if (cells > Integer.MAX_VALUE - HEADER_SIZE) {
+            throw new IllegalArgumentException("A matrix of " + cells + " patterns is too large to map");
+        }
+
+        final byte[] patterns = new byte[(int) cells];
+        IntStream.range(0, guesses.length).parallel().forEach(guess -> {
+            final int row = guess * answers.length;
+            for (int answer = 0; answer < answers.length; answer++) {
+                patterns[row + answer] = (byte) GuessScorer.score(guesses[guess], answers[answer]);
+            }
+        });
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put((byte) GameState.WORD_LENGTH)
+                .putShort((short) 0)
+                .putInt(guesses.length)
+                .putInt(answers.length)
+                .putLong(hash(guesses, answers))
+                .flip();
+
+        final File temporary = new File(file.getPath() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            final ByteBuffer body = ByteBuffer.wrap(patterns);
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Memory-maps the matrix stored in {@code file}.
+     * 
+     * @param file
+     * @return The mapped matrix.
+     * @throws IOException If {@code file} could not be read, is not a matrix, or
+     *                     was written by an unsupported version
+     */
+    final public static FeedbackMatrix open(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException(file + " is too short to be a feedback matrix");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            if (mapped.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a feedback matrix");
+            }
+            if (mapped.get(4) != VERSION || mapped.get(5) != GameState.WORD_LENGTH) {
+                throw new IOException(file + " is a feedback matrix of an unsupported version");
+            }
+
+            final int guessCount = mapped.getInt(8);
+            final int answerCount = mapped.getInt(12);
+            if (fileSize != HEADER_SIZE + (long) guessCount * answerCount) {
+                throw new IOException(file + " is truncated");
+            }
+            return new FeedbackMatrix(mapped, guessCount, answerCount, mapped.getLong(16));
+        }
+    }
+
+    /**
+     * Memory-maps the matrix in {@code file} if it was built from exactly
+     * {@code guesses} and {@code answers}, otherwise (re)builds it first.
+     * 
+     * @param file
+     * @param guesses Five-letter guesses packed by {@code WordBank.pack()}
+     * @param answers Five-letter answers packed by {@code WordBank.pack()}
+     * @return The mapped, up-to-date matrix.
+     * @throws IOException If {@code file} could not be built or read
+     */
+    final public static FeedbackMatrix openOrBuild(final File file, final int[] guesses, final int[] answers)
+            throws IOException {
+        if (file.isFile()) {
+            try {
+                final FeedbackMatrix existing = open(file);
+                if (existing.isBuiltFrom(guesses, answers)) {
+                    return existing;
+                }
+            } catch (final IOException unusable) {
+                // Rebuilding below replaces whatever is in the way
+            }
+        }
+        build(file, guesses, answers);
+        return open(file);
+    }
+
+    /**
+     * Memory-maps the matrix of every word in {@code bank} against every word in
+     * {@code bank}, (re)building it first if {@code bank} has changed.
+     * 
+     * @param file
+     * @param bank A bank of five-letter words
+     * @return The mapped, up-to-date matrix.
+     * @throws IOException If {@code file} could not be built or read
+     */
+    final public static FeedbackMatrix openOrBuild(final File file, final WordBank bank) throws IOException {
+        final int[] words = bank.toPackedArray();
+        return openOrBuild(file, words, words);
+    }
+
+    /**
+     * Hashes a list of guesses and answers with 64-bit FNV-1a, so matrices built
+     * from different words can be told apart. Every count and packed word is
+     * hashed as its four big-endian bytes.
+     * 
+     * @param guesses
+     * @param answers
+     * @return The hash stored in the header of a matrix built from these words.
+     */
+    final public static long hash(final int[] guesses, final int[] answers) {
+        long hash = hashInt(0xcbf29ce484222325L, guesses.length);
+        for (final int guess : guesses) {
+            hash = hashInt(hash, guess);
+        }
+        hash = hashInt(hash, answers.length);
+        for (final int answer : answers) {
+            hash = hashInt(hash, answer);
+        }
+        return hash;
+    }
+
+    /** Feeds the four bytes of {@code value} into an FNV-1a {@code hash}. */
+    private static long hashInt(long hash, final int value) {
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * @param guesses
+     * @param answers
+     * @return {@code true} if this matrix was built from exactly these words, in
+     *         this order.
+     */
+    public boolean isBuiltFrom(final int[] guesses, final int[] answers) {
+        return guesses.length == guessCount && answers.length == answerCount
+                && hash(guesses, answers) == wordsHash;
+    }
+
+    /**
+     * @param guessIndex  The index of the guess in the list the matrix was built
+     *                    from
+     * @param answerIndex The index of the answer in the list the matrix was built
+     *                    from
+     * @return The {@code GuessScorer} pattern of the guess against the answer.
+     */
+    public int pattern(final int guessIndex, final int answerIndex) {
+        if (guessIndex < 0 || guessIndex >= guessCount || answerIndex < 0 || answerIndex >= answerCount) {
+            throw new IndexOutOfBoundsException(String.format("(%d, %d)", guessIndex, answerIndex));
+        }
+        return buffer.get(HEADER_SIZE + guessIndex * answerCount + answerIndex) & 0xFF;
+    }
+
+    /** @return The number of guesses (rows) in the matrix. */
+    public int guessCount() {
+        return guessCount;
+    }
+
+    /** @return The number of answers (columns) in the matrix. */
+    public int answerCount() {
+        return answerCount;
+    }
+
+    /** @return The hash of the words the matrix was built from. */
+    public long wordsHash() {
+        return wordsHash;
+    }
+
+    // Builds the matrix of a word bank ahead of time, so hints never have to:
+    // 'FeedbackMatrix [bank file] [matrix file]', defaulting to the game's files
+    public static void main(final String[] args) throws IOException {
+        final File bankFile = new File(args.length > 0 ? args[0] : Wordle.cacheFileName);
+        final File matrixFile = new File(args.length > 1 ? args[1] : Wordle.matrixFileName);
+
+        final long startTime = System.nanoTime();
+        final FeedbackMatrix matrix = openOrBuild(matrixFile, WordBank.open(bankFile));
+        System.out.printf("%s holds the %d x %d patterns of %s (%d ms)\n", matrixFile, matrix.guessCount(),
+                matrix.answerCount(), bankFile, (System.nanoTime() - startTime) / 1000000);
+    }
+}
@@ -0,0 +1,309 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+
+import javax.swing.AbstractAction;
+import javax.swing.ActionMap;
+import javax.swing.InputMap;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+
+/**
+ * The grid of letter tiles the player types their guesses into, drawn as a
+ * single component.
+ * 
+ * Every tile is just a letter and a state in two primitive arrays, so typing
+ * a letter is an array write followed by a repaint of that one tile; nothing
+ * is allocated and no text components or document filters are involved. Only
+ * the letters 'a' through 'z' are bound as input, which rejects everything else
+ * before it ever reaches the board. Restarting and switching themes change the
+ * arrays or colors and repaint the board once.
+ * 
+ * Pressing Enter fires an {@code ActionEvent} to every registered
+ * {@code ActionListener}, with the letters of the active row (in lowercase) as
+ * its action command. The board itself knows nothing of the rules, so the
+ * listener decides whether the guess counts and calls {@code markRow()} if it
+ * does.
+ * 
+ * Like any Swing component, a {@code GameBoard} must only be used from the
+ * Event Dispatch Thread.
+ */
+final public class GameBoard extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    /** The number of rows, one per guess. */
+    final public static int ROWS = GameState.MAX_ATTEMPTS;
+    /** The number of tiles in a row, one per letter. */
+    final public static int COLUMNS = GameState.WORD_LENGTH;
+
+    /** The tile holds nothing. */
+    final public static byte EMPTY = 0;
+    /** The tile holds a letter that has not been scored yet. */
+    final public static byte TYPED = 1;
+    /** The tile holds a letter that is not in the Wordle. */
+    final public static byte GRAY = 2;
+    /** The tile holds a letter that is in the Wordle, but somewhere else. */
+    final public static byte YELLOW = 3;
+    /** The tile holds a letter that is in the Wordle at this exact position. */
+    final public static byte GREEN = 4;
+
+    /** The size of a single tile. */
+    final public static int TILE_WIDTH = 48, TILE_HEIGHT = 40;
+    /** The space left around each tile. */
+    final private static int TILE_GAP = 2;
+
+    /** The letter in each tile, in uppercase; {@code 0} if there is none. */
+    final private char[] letters = new char[ROWS * COLUMNS];
+    /** The state of each tile; one of {@code EMPTY}, {@code TYPED}, etc. */
+    final private byte[] states = new byte[ROWS * COLUMNS];
+
+    /** The row being typed into; {@code ROWS} once no more input is accepted. */
+    private int activeRow = 0;
+    /** The column the next letter goes into. */
+    private int cursor = 0;
+
+    /** The fill of each scored state, indexed by its state. */
+    final private Color[] scoredColors = new Color[GREEN + 1];
+    /** The fill of tiles that are not scored. */
+    private Color background;
+    /** The color of the letters, and the outline of the active row. */
+    private Color textColor;
+    /** The outline of every tile outside of the active row. */
+    final private Color outlineColor = Color.GRAY;
+
+    /**
+     * @param background   The fill of unscored tiles
+     * @param textColor    The color of the letters
+     * @param correctPlace The fill of {@code GREEN} tiles
+     * @param inString     The fill of {@code YELLOW} tiles
+     * @param notFound     The fill of {@code GRAY} tiles
+     */
+    public GameBoard(final Color background, final Color textColor, final Color correctPlace,
+            final Color inString, final Color notFound) {
+        this.background = background;
+        this.textColor = textColor;
+        scoredColors[GREEN] = correctPlace;
+        scoredColors[YELLOW] = inString;
+        scoredColors[GRAY] = notFound;
+
+        setFont(new Font("Arial", 1, 24));
+        setPreferredSize(new Dimension(COLUMNS * TILE_WIDTH, ROWS * TILE_HEIGHT));
+        setFocusable(true);
+        setOpaque(false); // Only the tiles are painted; the gaps show the panel behind
+
+        // Letters, Backspace and Enter are all the input the board needs, and every
+        // letter shares a single action
+        final InputMap inputs = getInputMap(WHEN_FOCUSED);
+        final ActionMap actions = getActionMap();
+        for (char letter = 'a'; letter <= 'z'; letter++) {
+            inputs.put(KeyStroke.getKeyStroke(letter), "type");
+            inputs.put(KeyStroke.getKeyStroke(Character.toUpperCase(letter)), "type");
+        }
+        inputs.put(KeyStroke.getKeyStroke("pressed BACK_SPACE"), "erase");
+        inputs.put(KeyStroke.getKeyStroke("pressed ENTER"), "submit");
+
+        actions.put("type", new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void actionPerformed(final ActionEvent event) {
+                // Key bindings for typed keys pass the typed character as the command
+                type(event.getActionCommand().charAt(0));
+            }
+        });
+        actions.put("erase", new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void actionPerformed(final ActionEvent event) {
+                erase();
+            }
+        });
+        actions.put("submit", new AbstractAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void actionPerformed(final ActionEvent event) {
+                fireGuess();
+            }
+        });
+
+        // Clicking the board gives it the keyboard back from the buttons
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(final MouseEvent event) {
+                requestFocusInWindow();
+            }
+        });
+    }
+
+    /**
+     * Types {@code letter} into the next tile of the active row. Nothing happens
+     * if the row is already full or the board accepts no more input.
+     * 
+     * @param letter A letter from 'a' to 'z', in either case
+     */
+    final public void type(final char letter) {
+        if (activeRow < ROWS && cursor < COLUMNS) {
+            final int tile = activeRow * COLUMNS + cursor;
+            letters[tile] = Character.toUpperCase(letter);
+            states[tile] = TYPED;
+            cursor++;
+            repaintTile(tile);
+        }
+    }
+
+    /** Removes the last letter typed into the active row, if there is one. */
+    final public void erase() {
+        if (activeRow < ROWS && cursor > 0) {
+            cursor--;
+            final int tile = activeRow * COLUMNS + cursor;
+            letters[tile] = 0;
+            states[tile] = EMPTY;
+            repaintTile(tile);
+        }
+    }
+
+    /**
+     * @return The letters typed into the active row so far, in lowercase; empty
+     *         if the board accepts no more input.
+     */
+    final public String getGuess() {
+        if (activeRow >= ROWS) {
+            return "";
+        }
+        final char[] guess = new char[cursor];
+        for (int i = 0; i < cursor; i++) {
+            guess[i] = Character.toLowerCase(letters[activeRow * COLUMNS + i]);
+        }
+        return new String(guess);
+    }
+
+    /**
+     * Colors the active row by {@code pattern} and moves on to the next row. Once
+     * the last row is marked, the board accepts no more input.
+     * 
+     * @param pattern The {@code GuessScorer} pattern the active row scored
+     */
+    final public void markRow(final int pattern) {
+        if (activeRow >= ROWS) {
+            return;
+        }
+        for (int i = 0; i < COLUMNS; i++) {
+            states[activeRow * COLUMNS + i] = (byte) (GRAY + GuessScorer.colorAt(pattern, i));
+        }
+        repaintRow(activeRow);
+        activeRow++;
+        cursor = 0;
+        if (activeRow < ROWS) {
+            repaintRow(activeRow); // Outlining the new active row
+        }
+    }
+
+    /** Stops accepting input, such as once the game has been won. */
+    final public void finish() {
+        final int finishedRow = activeRow;
+        activeRow = ROWS;
+        if (finishedRow < ROWS) {
+            repaintRow(finishedRow);
+        }
+    }
+
+    /** Empties every tile and makes the first row active again. */
+    final public void clear() {
+        Arrays.fill(letters, (char) 0);
+        Arrays.fill(states, EMPTY);
+        activeRow = 0;
+        cursor = 0;
+        repaint();
+    }
+
+    /**
+     * Switches the colors of unscored tiles and letters.
+     * 
+     * @param background The fill of unscored tiles
+     * @param textColor  The color of the letters
+     */
+    final public void setTheme(final Color background, final Color textColor) {
+        this.background = background;
+        this.textColor = textColor;
+        repaint();
+    }
+
+    /** Registers {@code listener} to be told about every guess the player enters. */
+    final public void addActionListener(final ActionListener listener) {
+        listenerList.add(ActionListener.class, listener);
+    }
+
+    /** Stops telling {@code listener} about guesses. */
+    final public void removeActionListener(final ActionListener listener) {
+        listenerList.remove(ActionListener.class, listener);
+    }
+
+    /** Tells every {@code ActionListener} about the guess in the active row. */
+    private void fireGuess() {
+        if (activeRow >= ROWS) {
+            return;
+        }
+        final ActionEvent event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED, getGuess());
+        for (final ActionListener listener : listenerList.getListeners(ActionListener.class)) {
+            listener.actionPerformed(event);
+        }
+    }
+
+    private void repaintTile(final int tile) {
+        repaint((tile % COLUMNS) * TILE_WIDTH, (tile / COLUMNS) * TILE_HEIGHT, TILE_WIDTH, TILE_HEIGHT);
+    }
+
+    private void repaintRow(final int row) {
+        repaint(0, row * TILE_HEIGHT, COLUMNS * TILE_WIDTH, TILE_HEIGHT);
+    }
+
+    /** Paints only the tiles that fall within the clip, which is usually just one. */
+    @Override
+    protected void paintComponent(final Graphics graphics) {
+        final Rectangle clip = graphics.getClipBounds();
+        final int firstRow, lastRow, firstColumn, lastColumn;
+        if (clip == null) {
+            firstRow = firstColumn = 0;
+            lastRow = ROWS - 1;
+            lastColumn = COLUMNS - 1;
+        } else {
+            firstRow = Math.max(0, clip.y / TILE_HEIGHT);
+            lastRow = Math.min(ROWS - 1, (clip.y + clip.height - 1) / TILE_HEIGHT);
+            firstColumn = Math.max(0, clip.x / TILE_WIDTH);
+            lastColumn = Math.min(COLUMNS - 1, (clip.x + clip.width - 1) / TILE_WIDTH);
+        }
+
+        final FontMetrics metrics = graphics.getFontMetrics(getFont());
+        final int baseline = (TILE_HEIGHT - metrics.getHeight()) / 2 + metrics.getAscent();
+        graphics.setFont(getFont());
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                final int tile = row * COLUMNS + column;
+                final int x = column * TILE_WIDTH + TILE_GAP, y = row * TILE_HEIGHT + TILE_GAP;
+                final int width = TILE_WIDTH - 2 * TILE_GAP, height = TILE_HEIGHT - 2 * TILE_GAP;
+
+                graphics.setColor(states[tile] >= GRAY ? scoredColors[states[tile]] : background);
+                graphics.fillRect(x, y, width, height);
+                graphics.setColor(row == activeRow ? textColor : outlineColor);
+                graphics.drawRect(x, y, width - 1, height - 1);
+
+                if (letters[tile] != 0) {
+                    graphics.setColor(textColor);
+                    graphics.drawChars(letters, tile, 1,
+                            x + (width - metrics.charWidth(letters[tile])) / 2, y - TILE_GAP + baseline);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,703 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Hosts any number of Wordle games at once over a small HTTP/JSON API, with no
+ * window involved.
+ * 
+ * <pre>
+ * POST   /games             starts a game     -> 201 {"id":"9f...","status":"IN_PROGRESS",...}
+ * POST   /games/{id}/guess  submits a guess   -> 200 {"id":..., "colors":"GY---"} or 422 {"error":"NOT_A_WORD"}
+ * GET    /games/{id}        shows a game      -> 200 {"id":..., "guesses":[...], "colors":[...]}
+ * DELETE /games/{id}        ends a game       -> 204
+ * GET    /stats             counts sessions   -> 200 {"sessions":..., "created":..., ...}
+ * </pre>
+ * 
+ * A guess may be sent as {@code {"guess":"crane"}} or simply as the word itself.
+ * In {@code colors}, every letter of a guess is {@code G} (green), {@code Y}
+ * (yellow), or {@code -} (gray), and the answer is only included once a game is
+ * over.
+ * 
+ * Every request runs on its own virtual thread, so a guess waiting on a slow
+ * dictionary only parks its own thread. All sessions share one set of answers,
+ * packed once up front, and {@code WordCheck}'s dictionary, filter and verdict
+ * cache, so checking a popular word costs one lookup no matter how many games
+ * guess it. A session is just a {@code GameState} (a handful of {@code int}s)
+ * and a timestamp; sessions nobody has touched for the idle timeout are evicted
+ * in the background, and new games are refused with 503 once
+ * {@code maxSessions} are live.
+ */
+final public class GameServer {
+    /** The port {@code main()} serves on unless told otherwise. */
+    final public static int DEFAULT_PORT = 8080;
+    /** How long a game may go untouched before it is evicted: 30 minutes. */
+    final public static long DEFAULT_IDLE_TIMEOUT_MILLIS = 30 * 60 * 1000;
+    /** The most games that may be live at once by default. */
+    final public static int DEFAULT_MAX_SESSIONS = 100000;
+    /** Longer request bodies are refused; a guess needs far less. */
+    final public static int MAX_BODY_BYTES = 256;
+    /** How many rejected guesses a player in {@code runLoad()} puts up with per game. */
+    final private static int MAX_LOAD_REJECTIONS = 20;
+
+    /** A single game, and when it was last played. */
+    final private static class Session {
+        final GameState state;
+        volatile long lastUsedNanos = System.nanoTime();
+
+        Session(final int answer) {
+            state = new GameState(answer);
+        }
+    }
+
+    final private HttpServer server;
+    final private ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    final private ConcurrentHashMap<Long, Session> sessions = new ConcurrentHashMap<Long, Session>();
+    /**
+     * The number of live games, reserved before a game is added so that
+     * concurrent new games can never go past {@code maxSessions}.
+     */
+    final private AtomicInteger liveSessions = new AtomicInteger();
+    /** Every Wordle a new game may be given, packed. */
+    final private int[] answers;
+    final private long idleTimeoutNanos;
+    final private int maxSessions;
+    final private Thread evictor;
+
+    final private LongAdder created = new LongAdder();
+    final private LongAdder evicted = new LongAdder();
+    final private LongAdder guesses = new LongAdder();
+
+    static {
+        // The JDK's server leaves Nagle's algorithm on, which holds small responses
+        // back until the client's delayed ACK arrives, adding ~40 ms to every request
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    // Time the server's requests alongside the rest of the game's metrics
+    final private static Metric newGameMetric = Metrics.get("serverNewGame");
+    final private static Metric guessMetric = Metrics.get("serverGuess");
+    /** Every request under {@code /games}, with unexpected failures recorded as errors. */
+    final private static Metric requestMetric = Metrics.get("serverRequest");
+
+    /**
+     * Creates a server using {@code DEFAULT_IDLE_TIMEOUT_MILLIS} and
+     * {@code DEFAULT_MAX_SESSIONS}. Call {@code start()} to begin serving.
+     * 
+     * @param address Where to listen; port 0 picks any free port
+     * @param answers (non-empty) Every Wordle a new game may be given, packed by
+     *                {@code WordBank.pack()}
+     * @throws IOException If {@code address} could not be bound.
+     */
+    public GameServer(final InetSocketAddress address, final int[] answers) throws IOException {
+        this(address, answers, DEFAULT_IDLE_TIMEOUT_MILLIS, DEFAULT_MAX_SESSIONS);
+    }
+
+    /**
+     * Creates a server. Call {@code start()} to begin serving.
+     * 
+     * @param address           Where to listen; port 0 picks any free port
+     * @param answers           (non-empty) Every Wordle a new game may be given,
+     *                          packed by {@code WordBank.pack()}
+     * @param idleTimeoutMillis (> 0) How long a game may go untouched before it
+     *                          is evicted
+     * @param maxSessions       (> 0) The most games that may be live at once
+     * @throws IOException If {@code address} could not be bound.
+     */
+    public GameServer(final InetSocketAddress address, final int[] answers, final long idleTimeoutMillis,
+            final int maxSessions) throws IOException {
+        if (answers.length == 0) {
+            throw new IllegalArgumentException("There must be at least one answer");
+        }
+        if (idleTimeoutMillis < 1 || maxSessions < 1) {
+            throw new IllegalArgumentException("idleTimeoutMillis and maxSessions must be positive");
+        }
+        this.answers = answers.clone();
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.maxSessions = maxSessions;
+
+        server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/games", this::handleGames);
+        server.createContext("/stats", this::handleStats);
+
+        // Sweeping a few times per timeout keeps games from outliving it by much
+        final long sweepMillis = Math.max(1, idleTimeoutMillis / 4);
+        evictor = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(sweepMillis);
+                } catch (final InterruptedException interrupt) {
+                    return;
+                }
+                evictIdle();
+            }
+        }, "GameServer-evictor");
+        evictor.setDaemon(true);
+    }
+
+    /** Begins serving requests and evicting idle games in the background. */
+    public void start() {
+        server.start();
+        evictor.start();
+    }
+
+    /**
+     * Stops serving. Requests still running get up to {@code delaySeconds} to
+     * finish, and every game is dropped.
+     * 
+     * @param delaySeconds (>= 0)
+     */
+    public void stop(final int delaySeconds) {
+        server.stop(delaySeconds);
+        evictor.interrupt();
+        executor.shutdown();
+        sessions.clear();
+        liveSessions.set(0);
+    }
+
+    /**
+     * Removes every game nobody has touched within the idle timeout.
+     * 
+     * @return The number of games removed.
+     */
+    public int evictIdle() {
+        final long now = System.nanoTime();
+        int removed = 0;
+        for (final Map.Entry<Long, Session> entry : sessions.entrySet()) {
+            // Only counting games this sweep removed itself, not ones deleted meanwhile
+            if (now - entry.getValue().lastUsedNanos > idleTimeoutNanos
+                    && sessions.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        liveSessions.addAndGet(-removed);
+        evicted.add(removed);
+        return removed;
+    }
+
+    /** @return The address the server is listening on. */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /** @return The number of live games. */
+    public int getSessionCount() {
+        return liveSessions.get();
+    }
+
+    /** @return The number of games started so far. */
+    public long getCreated() {
+        return created.sum();
+    }
+
+    /** @return The number of games evicted for being idle. */
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    /** @return The number of guesses submitted so far, rejected or not. */
+    public long getGuesses() {
+        return guesses.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GameServer[address=%s, sessions=%d/%d, created=%d, evicted=%d, guesses=%d]",
+                getAddress(), getSessionCount(), maxSessions, getCreated(), getEvicted(), getGuesses());
+    }
+
+    /** Routes everything under {@code /games}. */
+    private void handleGames(final HttpExchange exchange) throws IOException {
+        final long start = requestMetric.start();
+        boolean failed = false;
+        try {
+            final String method = exchange.getRequestMethod();
+            final String path = exchange.getRequestURI().getPath();
+            if (!path.equals("/games") && !path.startsWith("/games/")) {
+                respond(exchange, 404, error("NOT_FOUND"));
+                return;
+            }
+            final String rest = path.length() > "/games/".length() ? path.substring("/games/".length()) : "";
+
+            if (rest.isEmpty()) {
+                if (method.equals("POST")) {
+                    newGame(exchange);
+                } else {
+                    respond(exchange, 405, error("METHOD_NOT_ALLOWED"));
+                }
+                return;
+            }
+
+            final int slash = rest.indexOf('/');
+            final String id = slash == -1 ? rest : rest.substring(0, slash);
+            final String action = slash == -1 ? "" : rest.substring(slash + 1);
+            final long key = parseId(id);
+            final Session session = key == -1 ? null : sessions.get(key);
+            if (session == null) {
+                respond(exchange, 404, error("UNKNOWN_GAME"));
+                return;
+            }
+            session.lastUsedNanos = System.nanoTime();
+
+            if (action.equals("guess")) {
+                if (method.equals("POST")) {
+                    guess(exchange, id, session);
+                } else {
+                    respond(exchange, 405, error("METHOD_NOT_ALLOWED"));
+                }
+            } else if (!action.isEmpty()) {
+                respond(exchange, 404, error("NOT_FOUND"));
+            } else if (method.equals("GET")) {
+                final StringBuilder body;
+                synchronized (session) {
+                    body = describe(id, session, false);
+                }
+                respond(exchange, 200, body);
+            } else if (method.equals("DELETE")) {
+                if (sessions.remove(key, session)) {
+                    liveSessions.decrementAndGet();
+                }
+                respond(exchange, 204, null);
+            } else {
+                respond(exchange, 405, error("METHOD_NOT_ALLOWED"));
+            }
+        } catch (final RuntimeException failure) {
+            // Answering anyway, since the exchange is otherwise left hanging; the failure
+            // shows up under the metric's errors by type
+            failed = true;
+            requestMetric.recordError(start, failure);
+            respond(exchange, 500, error("INTERNAL"));
+        } finally {
+            if (!failed) {
+                requestMetric.record(start);
+            }
+            exchange.close();
+        }
+    }
+
+    /** Answers {@code GET /stats}. */
+    private void handleStats(final HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange, 200, new StringBuilder().append("{\"sessions\":").append(getSessionCount())
+                    .append(",\"maxSessions\":").append(maxSessions).append(",\"created\":").append(getCreated())
+                    .append(",\"evicted\":").append(getEvicted()).append(",\"guesses\":").append(getGuesses())
+                    .append('}'));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void newGame(final HttpExchange exchange) throws IOException {
+        final long start = newGameMetric.start();
+        if (!reserveSession()) {
+            newGameMetric.recordError(start, "Full");
+            respond(exchange, 503, error("TOO_MANY_GAMES"));
+            return;
+        }
+
+        final Session session = new Session(answers[ThreadLocalRandom.current().nextInt(answers.length)]);
+        long key;
+        do {
+            key = ThreadLocalRandom.current().nextLong();
+        } while (key == -1 || sessions.putIfAbsent(key, session) != null);
+        created.increment();
+
+        respond(exchange, 201, describe(Long.toHexString(key), session, false));
+        newGameMetric.record(start);
+    }
+
+    /**
+     * Counts a new game towards {@code maxSessions}, unless there are already
+     * that many.
+     * 
+     * @return {@code true} if the game may be added.
+     */
+    private boolean reserveSession() {
+        int live;
+        do {
+            live = liveSessions.get();
+            if (live >= maxSessions) {
+                return false;
+            }
+        } while (!liveSessions.compareAndSet(live, live + 1));
+        return true;
+    }
+
+    /**
+     * Submits the guess in the request body. Checking whether it is a real word
+     * happens outside of the session's lock, so other requests for the same game
+     * are never stuck behind a dictionary lookup.
+     */
+    private void guess(final HttpExchange exchange, final String id, final Session session) throws IOException {
+        final long start = guessMetric.start();
+        guesses.increment();
+
+        final String guess = readGuess(exchange);
+        if (guess == null) {
+            guessMetric.recordError(start, "BadRequest");
+            respond(exchange, 400, error("MISSING_GUESS"));
+            return;
+        }
+        final int packed = guess.length() == GameState.WORD_LENGTH ? WordBank.pack(guess) : -1;
+
+        final boolean needsCheck;
+        synchronized (session) {
+            needsCheck = session.state.check(packed) == GameState.ACCEPTABLE && packed != session.state.getAnswer();
+        }
+        boolean isWord = true;
+        if (needsCheck) {
+            final WordCheck.Verdict verdict = WordCheck.verify(guess);
+            if (verdict == WordCheck.Verdict.ERROR) {
+                guessMetric.recordError(start, "CheckFailed");
+                respond(exchange, 503, error("CHECK_FAILED"));
+                return;
+            }
+            isWord = verdict == WordCheck.Verdict.VALID;
+        }
+
+        final StringBuilder body;
+        final int result;
+        synchronized (session) {
+            result = session.state.submitGuess(packed, isWord);
+            body = result < 0 ? null : describe(id, session, true);
+        }
+        if (result < 0) {
+            respond(exchange, 422, error(rejection(result)));
+        } else {
+            respond(exchange, 200, body);
+        }
+        guessMetric.record(start);
+    }
+
+    /**
+     * @return The key of the hexadecimal game {@code id}, or {@code -1} if it is
+     *         malformed. No game is ever given the key {@code -1}.
+     */
+    private static long parseId(final String id) {
+        try {
+            return Long.parseUnsignedLong(id, 16);
+        } catch (final NumberFormatException malformed) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a guess sent either as {@code {"guess":"crane"}} or as the bare word.
+     * 
+     * @return The guess in lowercase, or {@code null} if the body is too long or
+     *         holds no guess.
+     */
+    private static String readGuess(final HttpExchange exchange) throws IOException {
+        final byte[] bytes;
+        try (final InputStream in = exchange.getRequestBody()) {
+            bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+        }
+        if (bytes.length > MAX_BODY_BYTES) {
+            return null;
+        }
+        String body = new String(bytes, StandardCharsets.UTF_8).trim();
+        if (body.startsWith("{")) {
+            final int field = body.indexOf("\"guess\"");
+            final int open = field == -1 ? -1 : body.indexOf('"', body.indexOf(':', field) + 1);
+            final int close = open == -1 ? -1 : body.indexOf('"', open + 1);
+            if (close == -1) {
+                return null;
+            }
+            body = body.substring(open + 1, close);
+        }
+        return body.isEmpty() ? null : body.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Describes a game as JSON. Must be called while holding the session's lock.
+     * 
+     * @param latestOnly Whether to only include the colors of the latest guess,
+     *                   rather than every guess and its colors
+     */
+    private static StringBuilder describe(final String id, final Session session, final boolean latestOnly) {
+        final GameState state = session.state;
+        final StringBuilder json = new StringBuilder(160).append("{\"id\":\"").append(id)
+                .append("\",\"status\":\"").append(statusName(state.getStatus())).append("\",\"attempt\":")
+                .append(state.getAttempt());
+
+        if (latestOnly) {
+            appendColors(json.append(",\"colors\":"), state.getPattern(state.getAttempt() - 1));
+        } else {
+            json.append(",\"guesses\":[");
+            for (int i = 0; i < state.getAttempt(); i++) {
+                json.append(i == 0 ? "\"" : ",\"").append(WordBank.unpack(state.getGuess(i), GameState.WORD_LENGTH))
+                        .append('"');
+            }
+            json.append("],\"colors\":[");
+            for (int i = 0; i < state.getAttempt(); i++) {
+                appendColors(json.append(i == 0 ? "" : ","), state.getPattern(i));
+            }
+            json.append(']');
+        }
+        if (state.isOver()) {
+            json.append(",\"answer\":\"").append(state.getAnswerWord()).append('"');
+        }
+        return json.append('}');
+    }
+
+    private static void appendColors(final StringBuilder json, final int pattern) {
+        json.append('"');
+        for (int i = 0; i < GameState.WORD_LENGTH; i++) {
+            switch (GuessScorer.colorAt(pattern, i)) {
+                case GuessScorer.GREEN:
+                    json.append('G');
+                    break;
+                case GuessScorer.YELLOW:
+                    json.append('Y');
+                    break;
+                default:
+                    json.append('-');
+            }
+        }
+        json.append('"');
+    }
+
+    private static String statusName(final int status) {
+        switch (status) {
+            case GameState.WON:
+                return "WON";
+            case GameState.LOST:
+                return "LOST";
+            default:
+                return "IN_PROGRESS";
+        }
+    }
+
+    private static String rejection(final int result) {
+        switch (result) {
+            case GameState.REJECTED_MALFORMED:
+                return "MALFORMED";
+            case GameState.REJECTED_REPEAT:
+                return "REPEAT";
+            case GameState.REJECTED_BANNED:
+                return "BANNED_LETTERS";
+            case GameState.REJECTED_NOT_A_WORD:
+                return "NOT_A_WORD";
+            default:
+                return "GAME_OVER";
+        }
+    }
+
+    private static StringBuilder error(final String code) {
+        return new StringBuilder("{\"error\":\"").append(code).append("\"}");
+    }
+
+    /**
+     * Sends {@code json} as the response body, or no body at all if it is
+     * {@code null}.
+     */
+    private static void respond(final HttpExchange exchange, final int status, final StringBuilder json)
+            throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        final byte[] body = json.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Plays {@code games} complete games against the server at {@code base}, with
+     * {@code concurrency} players at a time, each on its own virtual thread.
+     * Players guess words from {@code words} at random until their game is over,
+     * and finished games are left on the server afterwards. A player whose
+     * guesses keep being rejected (such as once most letters are banned) gives
+     * up and deletes the game.
+     * 
+     * @return The latency of every request made.
+     */
+    final public static LatencyHistogram runLoad(final URI base, final int games, final int concurrency,
+            final String[] words) throws InterruptedException {
+        final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicInteger remaining = new AtomicInteger(games);
+        final LongAdder failures = new LongAdder();
+
+        try (final ExecutorService players = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                players.execute(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        try {
+                            String game = send(client, latency, HttpRequest.newBuilder(base.resolve("/games"))
+                                    .POST(HttpRequest.BodyPublishers.noBody()));
+                            final String id = game.substring(7, game.indexOf('"', 7)); // {"id":"<id>"
+                            final URI guess = base.resolve("/games/" + id + "/guess");
+                            int rejections = 0;
+                            int banned = 0; // Letters the colors so far rule out, like GameState does
+                            while (!game.contains("\"answer\"")) {
+                                if (rejections == MAX_LOAD_REJECTIONS) {
+                                    send(client, latency, HttpRequest.newBuilder(base.resolve("/games/" + id))
+                                            .DELETE());
+                                    break;
+                                }
+                                String word;
+                                int tries = 0;
+                                do {
+                                    word = words[ThreadLocalRandom.current().nextInt(words.length)];
+                                } while ((letterSet(word) & banned) != 0 && ++tries < 100);
+                                final String result = send(client, latency, HttpRequest.newBuilder(guess)
+                                        .POST(HttpRequest.BodyPublishers.ofString("{\"guess\":\"" + word + "\"}")));
+                                if (result.startsWith("{\"error\"")) {
+                                    rejections++;
+                                } else {
+                                    game = result;
+                                    banned |= grayLetters(word, result);
+                                }
+                            }
+                        } catch (final IOException | RuntimeException failure) {
+                            failures.increment();
+                        } catch (final InterruptedException interrupt) {
+                            return;
+                        }
+                    }
+                });
+            }
+        }
+        if (failures.sum() > 0) {
+            System.err.printf("%d game(s) failed during the load test\n", failures.sum());
+        }
+        return latency;
+    }
+
+    /** @return The letters of {@code word}, with bit 0 standing for 'a', and so on. */
+    private static int letterSet(final String word) {
+        int letters = 0;
+        for (int i = 0; i < word.length(); i++) {
+            letters |= 1 << (word.charAt(i) - 'a');
+        }
+        return letters;
+    }
+
+    /**
+     * @return The letters of {@code word} that {@code result} colored gray
+     *         everywhere, and so are not in the Wordle.
+     */
+    private static int grayLetters(final String word, final String result) {
+        final int colors = result.indexOf("\"colors\":\"") + "\"colors\":\"".length();
+        int gray = 0;
+        int found = 0;
+        for (int i = 0; i < GameState.WORD_LENGTH; i++) {
+            if (result.charAt(colors + i) == '-') {
+                gray |= 1 << (word.charAt(i) - 'a');
+            } else {
+                found |= 1 << (word.charAt(i) - 'a');
+            }
+        }
+        return gray & ~found;
+    }
+
+    private static String send(final HttpClient client, final LatencyHistogram latency,
+            final HttpRequest.Builder request) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        latency.record(System.nanoTime() - start);
+        if (response.statusCode() >= 500) {
+            throw new IOException("Server responded with " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    // Serves games from the cache's word bank with 'GameServer [port]', or runs a
+    // self-contained load test with 'GameServer load [games] [concurrency]', which
+    // needs neither the bank nor network access
+    public static void main(final String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("load")) {
+            final int games = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+            final int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+            loadTest(games, concurrency);
+            return;
+        }
+
+        final WordBank bank = Wordle.getWordleBank();
+        if (bank == null) {
+            System.err.printf("No five-letter words in %s yet; run the game to fill it first\n",
+                    Wordle.cacheFileName);
+            return;
+        }
+        Wordle.loadVerdicts();
+        final int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        final GameServer server = new GameServer(new InetSocketAddress(port), bank.toPackedArray());
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(1)));
+        System.out.printf("Serving %d possible Wordles on port %d\n", bank.size(), server.getAddress().getPort());
+    }
+
+    /**
+     * Plays {@code games} games against a local server whose dictionary and
+     * answers are made-up words, then prints the throughput and latencies.
+     */
+    private static void loadTest(final int games, final int concurrency) throws Exception {
+        // Made-up words keep the test self-contained; the server can't tell the difference
+        final HashSet<String> dictionary = new HashSet<String>();
+        while (dictionary.size() < 2000) {
+            final char[] word = new char[GameState.WORD_LENGTH];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (char) ('a' + ThreadLocalRandom.current().nextInt(26));
+            }
+            dictionary.add(new String(word));
+        }
+        final String[] words = dictionary.toArray(new String[0]);
+        final int[] answers = new int[words.length];
+        for (int i = 0; i < words.length; i++) {
+            answers[i] = WordBank.pack(words[i]);
+        }
+        WordCheck.setDictionary(dictionary::contains); // Also drops any word filter
+
+        // A few guesses in every game are not words, to exercise rejections too
+        final String[] guesses = new String[words.length + words.length / 10];
+        System.arraycopy(words, 0, guesses, 0, words.length);
+        for (int i = words.length; i < guesses.length; i++) {
+            guesses[i] = words[i - words.length].substring(1) + "q";
+        }
+
+        final GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                answers, DEFAULT_IDLE_TIMEOUT_MILLIS, Math.max(DEFAULT_MAX_SESSIONS, games));
+        server.start();
+        final URI base = URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+        System.out.printf("Playing %d games, %d at a time, against %s\n", games, concurrency, base);
+
+        final long start = System.nanoTime();
+        final LatencyHistogram latency = runLoad(base, games, concurrency, guesses);
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d requests in %.2f s (%.0f requests/s)\n", latency.count(), seconds,
+                latency.count() / seconds);
+        System.out.printf("Latency: p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, max %.2f ms\n",
+                latency.percentile(50) / 1e6, latency.percentile(99) / 1e6, latency.percentile(99.9) / 1e6,
+                latency.max() / 1e6);
+        System.out.println(server);
+        server.stop(0);
+    }
+}
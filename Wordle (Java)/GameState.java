@@ -0,0 +1,264 @@
+/**
+ * The rules of a single game of Wordle, free of any UI.
+ * 
+ * A {@code GameState} only holds a handful of primitive fields, so games can be
+ * created, played and thrown away by the thousands for simulations, servers or
+ * tests. Words are handled in the packed form produced by
+ * {@code WordBank.pack()}, and {@code submitGuess()} does no I/O: whether a guess
+ * is a real word is decided by the caller (usually through
+ * {@code WordCheck.checkWord()}) and passed in.
+ * 
+ * A typical turn looks like:
+ * 
+ * <pre>
+ * final int guess = WordBank.pack(input);
+ * if (state.check(guess) == GameState.ACCEPTABLE) {
+ *     final int result = state.submitGuess(guess, WordCheck.checkWord(input));
+ *     // 'result' is either a GuessScorer pattern or a REJECTED_* code
+ * }
+ * </pre>
+ */
+final public class GameState {
+    /** The number of letters in every Wordle and guess. */
+    final public static int WORD_LENGTH = 5;
+    /** The number of guesses a player gets. */
+    final public static int MAX_ATTEMPTS = 6;
+
+    /** The game is still being played. */
+    final public static int IN_PROGRESS = 0;
+    /** The player guessed the Wordle. */
+    final public static int WON = 1;
+    /** The player ran out of attempts. */
+    final public static int LOST = 2;
+
+    /** Returned by {@code check()} for a guess that may be submitted. */
+    final public static int ACCEPTABLE = 0;
+    /** The guess is not made up of exactly {@code WORD_LENGTH} letters. */
+    final public static int REJECTED_MALFORMED = -1;
+    /** The guess is the same as the previous input. */
+    final public static int REJECTED_REPEAT = -2;
+    /** The guess contains a letter already known not to be in the Wordle. */
+    final public static int REJECTED_BANNED = -3;
+    /** The guess is not a real word. */
+    final public static int REJECTED_NOT_A_WORD = -4;
+    /** The game is already over. */
+    final public static int REJECTED_GAME_OVER = -5;
+
+    /** THE WORDle, packed. */
+    private int answer;
+    /** The number of guesses that have been scored so far. */
+    private int attempt;
+    /** {@code IN_PROGRESS}, {@code WON}, or {@code LOST}. */
+    private int status;
+    /**
+     * The letters known not to be in the Wordle, with bit 0 standing for 'a', bit
+     * 1 for 'b', and so on.
+     */
+    private int bannedLetters;
+    /**
+     * The last guess passed to {@code submitGuess()}, packed, used to reject the
+     * same guess twice in a row; {@code -1} if there is none.
+     */
+    private int previousInput;
+
+    /** Every scored guess, packed, in the order they were made. */
+    final private int[] guesses = new int[MAX_ATTEMPTS];
+    /** The pattern each guess in {@code guesses} scored. */
+    final private int[] patterns = new int[MAX_ATTEMPTS];
+
+    /**
+     * @param answer The Wordle, as a {@code WORD_LENGTH}-letter word
+     */
+    public GameState(final String answer) {
+        reset(answer);
+    }
+
+    /**
+     * @param answer The Wordle, packed by {@code WordBank.pack()}
+     */
+    public GameState(final int answer) {
+        reset(answer);
+    }
+
+    /**
+     * Starts a new game with a new Wordle.
+     * 
+     * @param newAnswer The Wordle, as a {@code WORD_LENGTH}-letter word
+     */
+    public void reset(final String newAnswer) {
+        if (newAnswer == null || newAnswer.length() != WORD_LENGTH || WordBank.pack(newAnswer) == -1) {
+            throw new IllegalArgumentException("The Wordle must be made up of " + WORD_LENGTH + " letters");
+        }
+        reset(WordBank.pack(newAnswer));
+    }
+
+    /**
+     * Starts a new game with a new Wordle.
+     * 
+     * @param newAnswer The Wordle, packed by {@code WordBank.pack()}
+     */
+    public void reset(final int newAnswer) {
+        answer = newAnswer;
+        attempt = 0;
+        status = IN_PROGRESS;
+        bannedLetters = 0;
+        previousInput = -1;
+    }
+
+    /**
+     * Decides whether {@code guess} is worth submitting, without changing the
+     * game. Everything except whether {@code guess} is a real word is checked.
+     * 
+     * @param guess A guess packed by {@code WordBank.pack()}, or {@code -1} if it
+     *              could not be packed
+     * @return {@code ACCEPTABLE}, or the {@code REJECTED_*} code explaining why
+     *         {@code guess} would be rejected.
+     */
+    public int check(final int guess) {
+        if (status != IN_PROGRESS) {
+            return REJECTED_GAME_OVER;
+        }
+        if (guess < 0 || guess >= 1 << (WORD_LENGTH * WordBank.BITS_PER_LETTER)) {
+            return REJECTED_MALFORMED;
+        }
+        if (guess == previousInput) {
+            return REJECTED_REPEAT;
+        }
+        if ((letterSet(guess) & bannedLetters) != 0) {
+            return REJECTED_BANNED;
+        }
+        return ACCEPTABLE;
+    }
+
+    /**
+     * Submits a guess. Unless it is rejected, the guess uses up an attempt and is
+     * scored against the Wordle. Either way, it becomes the previous input that
+     * the next guess may not repeat.
+     * 
+     * @param guess  A guess packed by {@code WordBank.pack()}, or {@code -1} if it
+     *               could not be packed
+     * @param isWord Whether {@code guess} is a real word; ignored if it is the
+     *               Wordle itself
+     * @return The {@code GuessScorer} pattern of {@code guess} (0 or more), or the
+     *         negative {@code REJECTED_*} code explaining why it was rejected.
+     */
+    public int submitGuess(final int guess, final boolean isWord) {
+        final int verdict = check(guess);
+        if (verdict != REJECTED_GAME_OVER) {
+            previousInput = guess;
+        }
+        if (verdict != ACCEPTABLE) {
+            return verdict;
+        }
+        if (!isWord && guess != answer) {
+            return REJECTED_NOT_A_WORD;
+        }
+
+        final int pattern = GuessScorer.score(guess, answer, WORD_LENGTH);
+        guesses[attempt] = guess;
+        patterns[attempt] = pattern;
+        attempt++;
+
+        // Letters that are gray everywhere in the guess are not in the Wordle at all,
+        // so they are banned; a gray repeat of a green or yellow letter is not
+        int grayLetters = 0;
+        int foundLetters = 0;
+        for (int i = 0, remaining = pattern; i < WORD_LENGTH; i++, remaining /= 3) {
+            final int letterBit = 1 << WordBank.letterAt(guess, WORD_LENGTH, i);
+            if (remaining % 3 == GuessScorer.GRAY) {
+                grayLetters |= letterBit;
+            } else {
+                foundLetters |= letterBit;
+            }
+        }
+        bannedLetters |= grayLetters & ~foundLetters;
+
+        if (guess == answer) {
+            status = WON;
+        } else if (attempt == MAX_ATTEMPTS) {
+            status = LOST;
+        }
+        return pattern;
+    }
+
+    /**
+     * Submits a guess; see {@code submitGuess(int, boolean)}.
+     * 
+     * @param guess
+     * @param isWord Whether {@code guess} is a real word
+     * @return The {@code GuessScorer} pattern of {@code guess}, or a negative
+     *         {@code REJECTED_*} code.
+     */
+    public int submitGuess(final CharSequence guess, final boolean isWord) {
+        return submitGuess(guess.length() == WORD_LENGTH ? WordBank.pack(guess) : -1, isWord);
+    }
+
+    /** @return The Wordle, packed. */
+    public int getAnswer() {
+        return answer;
+    }
+
+    /** @return The Wordle as a lowercase {@code String}. */
+    public String getAnswerWord() {
+        return WordBank.unpack(answer, WORD_LENGTH);
+    }
+
+    /** @return The number of guesses scored so far. */
+    public int getAttempt() {
+        return attempt;
+    }
+
+    /** @return {@code IN_PROGRESS}, {@code WON}, or {@code LOST}. */
+    public int getStatus() {
+        return status;
+    }
+
+    /** @return {@code true} if the game has been won or lost. */
+    public boolean isOver() {
+        return status != IN_PROGRESS;
+    }
+
+    /**
+     * @return The letters known not to be in the Wordle, with bit 0 standing for
+     *         'a', bit 1 for 'b', and so on.
+     */
+    public int getBannedLetters() {
+        return bannedLetters;
+    }
+
+    /**
+     * @param index (0 - {@code getAttempt() - 1})
+     * @return The packed guess scored on attempt {@code index}.
+     */
+    public int getGuess(final int index) {
+        checkAttemptIndex(index);
+        return guesses[index];
+    }
+
+    /**
+     * @param index (0 - {@code getAttempt() - 1})
+     * @return The pattern scored on attempt {@code index}.
+     */
+    public int getPattern(final int index) {
+        checkAttemptIndex(index);
+        return patterns[index];
+    }
+
+    private void checkAttemptIndex(final int index) {
+        if (index < 0 || index >= attempt) {
+            throw new IndexOutOfBoundsException(index);
+        }
+    }
+
+    /**
+     * @return The set of letters in a packed guess, with bit 0 standing for 'a',
+     *         bit 1 for 'b', and so on.
+     */
+    private static int letterSet(final int guess) {
+        int letters = 0;
+        for (int i = 0; i < WORD_LENGTH; i++) {
+            letters |= 1 << WordBank.letterAt(guess, WORD_LENGTH, i);
+        }
+        return letters;
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Scores a guess against an answer, producing the familiar green/yellow/gray
+ * feedback as a single {@code int}.
+ * 
+ * The feedback is encoded in base 3, one digit per letter, with the first
+ * letter as the least significant digit: {@code GRAY} (0), {@code YELLOW} (1),
+ * or {@code GREEN} (2). A five-letter word therefore scores between 0 (all
+ * gray) and 242 (all green), and there are {@code PATTERN_COUNT} possible
+ * patterns.
+ * 
+ * Repeated letters are scored like the original game: greens are handed out
+ * first, then yellows from left to right, and each letter of the answer can only
+ * justify a single green or yellow. Guessing "eerie" against "there" marks the
+ * last 'e' green, the first 'e' yellow, and the second 'e' gray, for instance.
+ * 
+ * Nothing here allocates, so scoring can run millions of times per second from
+ * any thread.
+ */
+final public class GuessScorer {
+    /** The letter is not in the answer (or every copy of it is accounted for). */
+    final public static int GRAY = 0;
+    /** The letter is in the answer, but somewhere else. */
+    final public static int YELLOW = 1;
+    /** The letter is in the answer at this exact position. */
+    final public static int GREEN = 2;
+
+    /** The number of distinct patterns a five-letter guess can score. */
+    final public static int PATTERN_COUNT = 243;
+    /** The pattern of a correct five-letter guess. */
+    final public static int ALL_GREEN = PATTERN_COUNT - 1;
+
+    /** The longest word whose pattern still fits into an {@code int}. */
+    final public static int MAX_WORD_LENGTH = 19;
+
+    private GuessScorer() {
+    }
+
+    /**
+     * Scores {@code guess} against {@code answer}. Both should use the same
+     * letter case.
+     * 
+     * @param guess
+     * @param answer (same length as {@code guess}, up to {@code MAX_WORD_LENGTH})
+     * @return The feedback pattern of {@code guess}.
+     */
+    final public static int score(final CharSequence guess, final CharSequence answer) {
+        final int length = guess.length();
+        if (length != answer.length() || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Guess and answer must have the same length, up to "
+                    + MAX_WORD_LENGTH + " letters");
+        }
+
+        // Bit 'i' is set if letter 'i' of the guess is green
+        int greens = 0;
+        for (int i = 0; i < length; i++) {
+            if (guess.charAt(i) == answer.charAt(i)) {
+                greens |= 1 << i;
+            }
+        }
+
+        // Bit 'i' is set once answer letter 'i' has earned a green or a yellow
+        int used = greens;
+        int pattern = 0;
+        for (int i = 0, weight = 1; i < length; i++, weight *= 3) {
+            if ((greens & (1 << i)) != 0) {
+                pattern += GREEN * weight;
+                continue;
+            }
+            final char letter = guess.charAt(i);
+            // Looking for a copy of this letter in the answer that has not earned
+            // anything yet
+            for (int j = 0; j < length; j++) {
+                if ((used & (1 << j)) == 0 && answer.charAt(j) == letter) {
+                    used |= 1 << j;
+                    pattern += YELLOW * weight;
+                    break;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Scores a five-letter {@code guess} against a five-letter {@code answer},
+     * both packed by {@code WordBank.pack()}.
+     * 
+     * @param guess
+     * @param answer
+     * @return The feedback pattern of {@code guess}.
+     */
+    final public static int score(final int guess, final int answer) {
+        return score(guess, answer, 5);
+    }
+
+    /**
+     * Scores {@code guess} against {@code answer}, both packed by
+     * {@code WordBank.pack()}.
+     * 
+     * @param guess
+     * @param answer
+     * @param wordLength The length of both words before they were packed
+     * @return The feedback pattern of {@code guess}.
+     */
+    final public static int score(final int guess, final int answer, final int wordLength) {
+        // Same approach as score(CharSequence, CharSequence), just reading letters out
+        // of the packed words
+        int greens = 0;
+        for (int i = 0; i < wordLength; i++) {
+            if (WordBank.letterAt(guess, wordLength, i) == WordBank.letterAt(answer, wordLength, i)) {
+                greens |= 1 << i;
+            }
+        }
+
+        int used = greens;
+        int pattern = 0;
+        for (int i = 0, weight = 1; i < wordLength; i++, weight *= 3) {
+            if ((greens & (1 << i)) != 0) {
+                pattern += GREEN * weight;
+                continue;
+            }
+            final int letter = WordBank.letterAt(guess, wordLength, i);
+            for (int j = 0; j < wordLength; j++) {
+                if ((used & (1 << j)) == 0 && WordBank.letterAt(answer, wordLength, j) == letter) {
+                    used |= 1 << j;
+                    pattern += YELLOW * weight;
+                    break;
+                }
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Reads the color of a single letter out of a pattern.
+     * 
+     * @param pattern A pattern returned by {@code score()}
+     * @param index   The position of the letter within the guess
+     * @return {@code GRAY}, {@code YELLOW}, or {@code GREEN}.
+     */
+    final public static int colorAt(final int pattern, final int index) {
+        int remaining = pattern;
+        for (int i = 0; i < index; i++) {
+            remaining /= 3;
+        }
+        return remaining % 3;
+    }
+
+    /**
+     * @param wordLength (1 - {@code MAX_WORD_LENGTH})
+     * @return The pattern of a correct guess of {@code wordLength} letters.
+     */
+    final public static int allGreen(final int wordLength) {
+        int pattern = 0;
+        for (int i = 0; i < wordLength; i++) {
+            pattern = pattern * 3 + GREEN;
+        }
+        return pattern;
+    }
+}
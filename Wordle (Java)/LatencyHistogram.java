@@ -0,0 +1,124 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size, lock-free histogram of durations in nanoseconds, precise to
+ * within about 3% at every scale from nanoseconds to hours.
+ * 
+ * Buckets are log-linear: every power of two is split into
+ * {@code SUB_BUCKETS} equal slices, so recording a duration is a couple of
+ * shifts and a single atomic increment, and memory stays constant however many
+ * durations are recorded. Percentiles are read by walking the buckets and
+ * reporting the middle of the bucket the percentile falls in.
+ * All methods are thread-safe.
+ */
+final public class LatencyHistogram {
+    /** How many bits of precision each power of two is split into. */
+    final private static int SUB_BUCKET_BITS = 5;
+    /** How many slices each power of two is split into. */
+    final private static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Durations of {@code 2^MAX_EXPONENT} ns (about 9 hours) or more share the last bucket. */
+    final private static int MAX_EXPONENT = 45;
+
+    final private AtomicLongArray buckets = new AtomicLongArray(
+            (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS);
+    // Striped, so threads recording at once do not contend on them
+    final private LongAdder count = new LongAdder();
+    final private LongAdder sum = new LongAdder();
+    final private AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a single duration.
+     * 
+     * @param nanos (>= 0) Negative durations are recorded as 0
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketOf(value));
+        count.increment();
+        sum.add(value);
+        long currentMax;
+        while (value > (currentMax = max.get()) && !max.compareAndSet(currentMax, value)) {
+        }
+    }
+
+    /**
+     * Values below {@code SUB_BUCKETS} get a bucket each; above that, the bucket
+     * is picked by the position of the highest set bit plus the
+     * {@code SUB_BUCKET_BITS} bits below it.
+     */
+    private static int bucketOf(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = Math.min(MAX_EXPONENT - 1, 63 - Long.numberOfLeadingZeros(value));
+        if (exponent == MAX_EXPONENT - 1 && value >= (1L << MAX_EXPONENT)) {
+            return (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS - 1;
+        }
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /** @return The smallest value that lands in {@code bucket}. */
+    private static long lowestValueIn(final int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (1L << exponent) + ((long) (bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS));
+    }
+
+    /**
+     * @param percentile (0 - 100) Such as 50 for the median or 99.9
+     * @return The duration that {@code percentile}% of recorded durations are at
+     *         or below, in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long percentile(final double percentile) {
+        final long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                // The middle of the bucket, but never beyond the largest duration seen
+                final long low = lowestValueIn(i);
+                final long high = i + 1 < buckets.length() ? lowestValueIn(i + 1) - 1 : low;
+                return Math.min(max.get(), low + (high - low) / 2);
+            }
+        }
+        return max.get();
+    }
+
+    /** @return The number of durations recorded. */
+    public long count() {
+        return count.sum();
+    }
+
+    /** @return The mean duration in nanoseconds, or 0 if nothing was recorded. */
+    public double mean() {
+        final long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+
+    /** @return The longest duration recorded, in nanoseconds. */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Forgets every recorded duration. Durations recorded while resetting may be
+     * partly kept.
+     */
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+}
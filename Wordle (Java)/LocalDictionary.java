@@ -0,0 +1,90 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@code Dictionary} answered from an in-memory index of a local word list.
+ * The word list is a plain text file with one word per line; blank lines and
+ * lines containing non-alphabetical characters are skipped.
+ * Words missing from the list can optionally be passed on to a fallback
+ * {@code Dictionary}, such as a {@code RemoteDictionary}.
+ */
+final public class LocalDictionary implements Dictionary {
+    /** Every word from the loaded word list, in lowercase. */
+    final private HashSet<String> words;
+
+    /** Consulted for words missing from {@code words}; may be {@code null}. */
+    final private Dictionary fallback;
+
+    /**
+     * Loads {@code wordList} into memory without a fallback, meaning lookups never
+     * leave the machine.
+     * 
+     * @param wordList
+     * @throws IOException If {@code wordList} could not be read
+     */
+    public LocalDictionary(final File wordList) throws IOException {
+        this(wordList, null);
+    }
+
+    /**
+     * Loads {@code wordList} into memory.
+     * 
+     * @param wordList
+     * @param fallback Consulted for words that are not in {@code wordList}
+     *                 (nullable)
+     * @throws IOException If {@code wordList} could not be read
+     */
+    public LocalDictionary(final File wordList, final Dictionary fallback) throws IOException {
+        this.fallback = fallback;
+        // Sized for a typical word list up front to avoid rehashing while loading
+        words = new HashSet<String>(1 << 16);
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(wordList))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim().toLowerCase();
+                if (WordCheck.isAlphabetical(line)) {
+                    words.add(line);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(final String word) throws IOException {
+        if (words.contains(word)) {
+            return true;
+        }
+        return fallback != null && fallback.contains(word);
+    }
+
+    /**
+     * Answers words in the list right away, and passes everything else on to the
+     * fallback's own {@code containsAsync()}, so a miss never blocks the caller on
+     * a remote lookup.
+     */
+    @Override
+    public CompletableFuture<Boolean> containsAsync(final String word) {
+        if (words.contains(word)) {
+            return CompletableFuture.completedFuture(true);
+        }
+        return fallback != null ? fallback.containsAsync(word) : CompletableFuture.completedFuture(false);
+    }
+
+    /** @return {@code true} if there is no fallback to pass misses on to. */
+    @Override
+    public boolean isSelfContained() {
+        return fallback == null;
+    }
+
+    /**
+     * @return The number of words loaded from the word list.
+     */
+    public int size() {
+        return words.size();
+    }
+}
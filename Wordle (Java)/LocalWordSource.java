@@ -0,0 +1,172 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+
+/**
+ * A {@code WordSource} answered from an in-memory index of a local word list,
+ * so words are generated without leaving the machine.
+ * The word list is a plain text file with one word per line; blank lines,
+ * duplicates, and lines containing non-alphabetical characters are skipped.
+ * 
+ * Words are indexed by length: every word of a given length is stored back to
+ * back in a single byte array, so picking a word is one random index into the
+ * bucket for the requested length. Words are picked with replacement, just like
+ * the online word API, and the same seed always produces the same words.
+ */
+final public class LocalWordSource implements WordSource {
+    /**
+     * {@code buckets[length]} holds every word of that length, one after
+     * another, or is {@code null} if there are none.
+     */
+    final private byte[][] buckets;
+
+    /** {@code counts[length]} is the number of words in {@code buckets[length]}. */
+    final private int[] counts;
+
+    final private int size;
+
+    final private Random random;
+
+    /**
+     * Loads and indexes {@code wordList} with an unpredictable seed.
+     * 
+     * @param wordList
+     * @throws IOException If {@code wordList} could not be read
+     */
+    public LocalWordSource(final File wordList) throws IOException {
+        this(readWords(wordList), new Random());
+    }
+
+    /**
+     * Loads and indexes {@code wordList}.
+     * 
+     * @param wordList
+     * @param seed     Seeds the generator, so runs with the same seed and word
+     *                 list generate the same words
+     * @throws IOException If {@code wordList} could not be read
+     */
+    public LocalWordSource(final File wordList, final long seed) throws IOException {
+        this(readWords(wordList), new Random(seed));
+    }
+
+    /**
+     * Indexes {@code words}, skipping any that are {@code null} or
+     * non-alphabetical.
+     * 
+     * @param words
+     * @param seed  Seeds the generator, so runs with the same seed and words
+     *              generate the same words
+     */
+    public LocalWordSource(final String[] words, final long seed) {
+        this(normalize(Arrays.asList(words)), new Random(seed));
+    }
+
+    private LocalWordSource(final HashSet<String> distinctWords, final Random random) {
+        this.random = random;
+
+        // Sorted so the same words always land in the same slots, whatever order the
+        // word list was in
+        final String[] words = distinctWords.toArray(new String[distinctWords.size()]);
+        Arrays.sort(words);
+
+        int longest = 0;
+        for (final String word : words) {
+            longest = Math.max(longest, word.length());
+        }
+        counts = new int[longest + 1];
+        for (final String word : words) {
+            counts[word.length()]++;
+        }
+
+        // Filling each bucket in turn; 'filled' tracks where the next word of each
+        // length goes
+        buckets = new byte[longest + 1][];
+        final int[] filled = new int[longest + 1];
+        for (final String word : words) {
+            final int length = word.length();
+            if (buckets[length] == null) {
+                buckets[length] = new byte[counts[length] * length];
+            }
+            final int start = filled[length]++ * length;
+            for (int i = 0; i < length; i++) {
+                buckets[length][start + i] = (byte) word.charAt(i);
+            }
+        }
+        size = words.length;
+    }
+
+    private static HashSet<String> readWords(final File wordList) throws IOException {
+        final HashSet<String> words = new HashSet<String>(1 << 16);
+        try (BufferedReader reader = new BufferedReader(new FileReader(wordList))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim().toLowerCase();
+                if (WordCheck.isAlphabetical(line)) {
+                    words.add(line);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static HashSet<String> normalize(final Iterable<String> words) {
+        final HashSet<String> normalized = new HashSet<String>();
+        for (final String word : words) {
+            if (word != null && WordCheck.isAlphabetical(word)) {
+                normalized.add(word.toLowerCase());
+            }
+        }
+        return normalized;
+    }
+
+    @Override
+    public String[] generate(final int wordAmount, final int wordLength) throws IOException {
+        final byte[] bucket = bucketFor(wordLength);
+        final int count = counts[wordLength];
+        final String[] words = new String[wordAmount];
+        for (int i = 0; i < wordAmount; i++) {
+            // Every word is plain ASCII, so Latin-1 decoding is a straight copy
+            words[i] = new String(bucket, random.nextInt(count) * wordLength, wordLength, StandardCharsets.ISO_8859_1);
+        }
+        return words;
+    }
+
+    @Override
+    public int generate(final int wordAmount, final int wordLength, final WordArrayParser.WordSink sink)
+            throws IOException {
+        final byte[] bucket = bucketFor(wordLength);
+        final int count = counts[wordLength];
+        for (int i = 0; i < wordAmount; i++) {
+            // Handing out the word straight from its bucket
+            sink.word(bucket, random.nextInt(count) * wordLength, wordLength);
+        }
+        return wordAmount;
+    }
+
+    private byte[] bucketFor(final int wordLength) throws IOException {
+        if (wordLength < 0 || wordLength >= buckets.length || buckets[wordLength] == null) {
+            throw new IOException("No words of length " + wordLength + " in the word list");
+        }
+        return buckets[wordLength];
+    }
+
+    /**
+     * @param wordLength
+     * @return The number of distinct words of {@code wordLength} length.
+     */
+    public int count(final int wordLength) {
+        return wordLength < 0 || wordLength >= counts.length ? 0 : counts[wordLength];
+    }
+
+    /**
+     * @return The number of distinct words loaded.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the calls and failures of a single operation and records how long
+ * each call took.
+ * 
+ * Instrumenting an operation takes a timestamp up front and a single call once
+ * it completes:
+ * 
+ * <pre>
+ * final long start = metric.start();
+ * ...
+ * metric.record(start); // or metric.recordError(start, failure)
+ * </pre>
+ * 
+ * Recording costs a {@code System.nanoTime()} call and a few uncontended
+ * atomic increments, so it is cheap enough for hot paths.
+ * Metrics are created and registered with JMX through {@code Metrics.get()}.
+ * All methods are thread-safe.
+ */
+final public class Metric implements MetricMXBean {
+    final private String name;
+    final private LongAdder calls = new LongAdder();
+    final private LongAdder errors = new LongAdder();
+    final private ConcurrentHashMap<String, LongAdder> errorsByType = new ConcurrentHashMap<String, LongAdder>();
+    final private LatencyHistogram latency = new LatencyHistogram();
+
+    Metric(final String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return A timestamp to pass to {@code record()} once the operation
+     *         completes.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a successful call that began at {@code startNanos}.
+     * 
+     * @param startNanos The timestamp returned by {@code start()}
+     */
+    public void record(final long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        calls.increment();
+    }
+
+    /**
+     * Records a successful call whose duration was measured elsewhere.
+     * 
+     * @param nanos How long the call took
+     */
+    public void recordDuration(final long nanos) {
+        latency.record(nanos);
+        calls.increment();
+    }
+
+    /**
+     * Records a failed call that began at {@code startNanos}, counting it under
+     * the simple class name of {@code failure}.
+     * 
+     * @param startNanos The timestamp returned by {@code start()}
+     * @param failure
+     */
+    public void recordError(final long startNanos, final Throwable failure) {
+        recordError(startNanos, failure == null ? "Unknown" : failure.getClass().getSimpleName());
+    }
+
+    /**
+     * Records a failed call that began at {@code startNanos}.
+     * 
+     * @param startNanos The timestamp returned by {@code start()}
+     * @param type       What kind of failure it was
+     */
+    public void recordError(final long startNanos, final String type) {
+        record(startNanos);
+        errors.increment();
+        errorsByType.computeIfAbsent(type, ignored -> new LongAdder()).increment();
+    }
+
+    /** @return The durations of every recorded call. */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public Map<String, Long> getErrorsByType() {
+        final TreeMap<String, Long> counts = new TreeMap<String, Long>();
+        errorsByType.forEach((type, count) -> counts.put(type, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.mean() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.percentile(50) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.percentile(99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.percentile(99.9) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.max() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        errors.reset();
+        errorsByType.clear();
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-22s %9d %7d %10.3f %10.3f %10.3f %10.3f  %s", name, getCalls(), getErrors(),
+                getP50Millis(), getP99Millis(), getP999Millis(), getMaxMillis(),
+                errorsByType.isEmpty() ? "" : getErrorsByType());
+    }
+}
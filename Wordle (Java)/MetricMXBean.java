@@ -0,0 +1,33 @@
+import java.util.Map;
+
+/**
+ * The JMX view of a single instrumented operation, registered by
+ * {@code Metrics} under {@code Wordle:type=Metric,name=<operation>}. Durations
+ * are reported in milliseconds.
+ */
+public interface MetricMXBean {
+    /** @return The name of the operation. */
+    String getName();
+
+    /** @return How many times the operation completed, successfully or not. */
+    long getCalls();
+
+    /** @return How many times the operation failed. */
+    long getErrors();
+
+    /** @return How many times the operation failed, by type of failure. */
+    Map<String, Long> getErrorsByType();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    /** Forgets everything recorded so far. */
+    void reset();
+}
@@ -0,0 +1,101 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The registry of every {@code Metric} in the game.
+ * 
+ * Each metric is registered with the platform MBean server as
+ * {@code Wordle:type=Metric,name=<operation>} the first time it is asked for,
+ * so it can be watched live with JConsole or VisualVM. The same numbers can be
+ * printed as a table through {@code dump()}, or every so often through
+ * {@code startDump()}.
+ */
+final public class Metrics {
+    /** The JMX domain every metric is registered under. */
+    final public static String DOMAIN = "Wordle";
+
+    final private static ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>();
+
+    /** Prints {@code dump()} periodically once started; {@code null} until then. */
+    private static ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the metric for {@code name}, creating and registering it with JMX the
+     * first time.
+     * 
+     * @param name The name of the operation, such as {@code checkWord}; letters
+     *             and digits only, so it is a valid JMX name
+     * @return The metric; always the same instance for the same {@code name}.
+     */
+    final public static Metric get(final String name) {
+        return metrics.computeIfAbsent(name, Metrics::register);
+    }
+
+    private static Metric register(final String name) {
+        final Metric metric = new Metric(name);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metric,
+                    new ObjectName(DOMAIN + ":type=Metric,name=" + name));
+        } catch (final JMException | SecurityException unregistered) {
+            // The metric still works without JMX, so this is not fatal
+            System.err.printf("Could not register metric %s with JMX\n Trace: ", name);
+            unregistered.printStackTrace();
+        }
+        return metric;
+    }
+
+    /**
+     * @return Every metric as a table, one row per operation, with durations in
+     *         milliseconds.
+     */
+    final public static String dump() {
+        final StringBuilder table = new StringBuilder(String.format("%-22s %9s %7s %10s %10s %10s %10s  %s\n",
+                "operation", "calls", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors by type"));
+        for (final Metric metric : new TreeMap<String, Metric>(metrics).values()) {
+            table.append(metric).append('\n');
+        }
+        return table.toString();
+    }
+
+    /**
+     * Prints {@code dump()} to {@code output} every {@code periodMillis}, on a
+     * daemon thread, until {@code stopDump()} is called. Replaces any dump already
+     * running.
+     * 
+     * @param periodMillis (> 0)
+     * @param output
+     */
+    final public static synchronized void startDump(final long periodMillis, final PrintStream output) {
+        stopDump();
+        dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+            final Thread thread = new Thread(task, "Metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> output.print(dump()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops printing the periodic dump, if it is running. */
+    final public static synchronized void stopDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    /** Forgets everything recorded by every metric. */
+    final public static void resetAll() {
+        metrics.values().forEach(Metric::reset);
+    }
+}
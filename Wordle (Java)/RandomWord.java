@@ -1,9 +1,13 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
-import java.io.InputStream;
-import java.net.URI;
-import java.net.URLConnection;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -18,11 +22,60 @@ final public class RandomWord {
      */
     final public static int MAX_WORD_LENGTH = 15;
 
-    /** How long a request should wait for a response. */
-    final protected static int BASE_READ_TIMEOUT = 5000;
-
     final static String defaultFileName = "generated_words.txt";
 
+    // Time every call to the generate* methods below
+    final private static Metric generateWordMetric = Metrics.get("generateWord");
+    final private static Metric generateWordsInArrayMetric = Metrics.get("generateWordsInArray");
+    final private static Metric generateWordsInFileMetric = Metrics.get("generateWordsInFile");
+
+    /** Where every generated word comes from. */
+    private static volatile WordSource wordSource = createDefaultWordSource();
+
+    /**
+     * Builds the word source used when none has been set through
+     * {@code setWordSource()}.
+     * If {@code WordCheck.defaultDictionaryFileName} exists, words are generated
+     * from it without touching the network. Otherwise every word comes from the
+     * online word API.
+     * 
+     * @return A {@code WordSource}; never {@code null}
+     */
+    final public static WordSource createDefaultWordSource() {
+        final File wordList = new File(WordCheck.defaultDictionaryFileName);
+        if (wordList.isFile()) {
+            try {
+                return new LocalWordSource(wordList);
+            } catch (final IOException unreadable) {
+                System.err.printf("Could not load %s; falling back to the online word API\n Trace: ",
+                        WordCheck.defaultDictionaryFileName);
+                unreadable.printStackTrace();
+            }
+        }
+        return new RemoteWordSource();
+    }
+
+    /**
+     * Replaces the {@code WordSource} that every word is generated from.
+     * For instance, a {@code LocalWordSource} with a fixed seed makes generation
+     * offline and reproducible.
+     * 
+     * @param newWordSource (non-null)
+     */
+    final public static void setWordSource(final WordSource newWordSource) {
+        if (newWordSource == null) {
+            throw new IllegalArgumentException("word source cannot be null");
+        }
+        wordSource = newWordSource;
+    }
+
+    /**
+     * @return The {@code WordSource} that words are currently generated from.
+     */
+    final public static WordSource getWordSource() {
+        return wordSource;
+    }
+
     /**
      * Generates a single word of length {@code wordLength} per call.
      * 
@@ -30,33 +83,18 @@ final public class RandomWord {
      * @return A string of {@code wordLength} length, or {@code null} upon failure.
      */
     final public static String generateWord(final int wordLength) {
+        final long start = generateWordMetric.start();
         try {
-            final URLConnection wordSource = new URI(
-                    "https://random-word-api.herokuapp.com/word?length=" + wordLength)
-                    .toURL()
-                    .openConnection();
-            wordSource.setConnectTimeout(BASE_READ_TIMEOUT);
-            wordSource.setReadTimeout(BASE_READ_TIMEOUT);
-
-            final InputStream word = wordSource.getInputStream();
-
-            // The raw return from 'wordSource' contains a bracket and double quotes at its
-            // beginning and end, so we discard the first two bytes below:
-            word.read();
-            word.read();
-
-            // readAllBytes() is a function in newer Java versions, so it's unused
-            // to preserve backwards compatibility
-            String formattedWord = "";
-            for (int i = 0; i < wordLength; i++) {
-                formattedWord += (char) word.read();
-            }
+            final String[] words = wordSource.generate(1, wordLength);
 
             // Returning word
-            if (!formattedWord.isBlank()) {
-                return formattedWord;
+            if (words.length > 0 && !words[0].isBlank()) {
+                generateWordMetric.record(start);
+                return words[0];
             }
+            generateWordMetric.recordError(start, "NoWord");
         } catch (final Exception other) {
+            generateWordMetric.recordError(start, other);
             System.err.println("Exception in generateWord()");
             System.err.printf("Exception message: %s\n Passed arguments: %s\n Trace: ", other.getMessage(), wordLength);
             other.printStackTrace();
@@ -91,61 +129,24 @@ final public class RandomWord {
     final public static void generateWordsInFile(final File file, final int wordAmount, final int wordLength,
             final boolean append) {
         if (wordAmount > 0 && wordLength > MIN_WORD_LENGTH) {
+            final long start = generateWordsInFileMetric.start();
             try {
-                final URLConnection wordSource = new URI(String.format(
-                        "https://random-word-api.herokuapp.com/word?number=%d&length=%d", wordAmount, wordLength))
-                        .toURL().openConnection();
-                wordSource.setConnectTimeout(BASE_READ_TIMEOUT * 2);
-                wordSource.setReadTimeout(BASE_READ_TIMEOUT * 2);
-                // Output file
-                final FileWriter output = new FileWriter(file, append);
-
-                // Reading the returned word from 'wordSource' and writing to 'fileName'
-                final byte[] rawReturnedData = wordSource.getInputStream().readAllBytes();
-
-                for (int i = 0; i < wordAmount; i++) {
-
-                    // Reads the rest of the returned bytes
-                    String buffer = "";
-
-                    /*
-                     * 'int j' is responsible for setting the index when reading from
-                     * 'rawReturnedData'.
-                     * 'int i' tells us which word (0th word, 1st word...) we should be retrieving
-                     * from the array, but junk characters such as square brackets ([]),
-                     * double quotes (""), and commas (","), are in the way, so we add 3 to
-                     * 'wordLength' before multiplying by 'i'
-                     * 
-                     * For instance, let's say 'rawReturnedData' contains the following bytes turned
-                     * characters, including the square brackets, double quotes, and commas:
-                     * ["looie","ninny","bocce"]
-                     * 
-                     * When retrieving the first word, "looie", 'i' will equal 0, because "looie" is
-                     * the first word to be retrieved, so 'j' will be initialized with a value of 0,
-                     * causing the below for-loop to simply iterate through 'rawReturnedData' until
-                     * it gets all the characters it needs, skipping over the bracket and double
-                     * quote located at indexes 0 and 1, respectively.
-                     * 
-                     * However, when retrieving the second word (where 'i' equals 1), "ninny", there
-                     * are now THREE characters in the way: a double quote, a comma, and another
-                     * double quote. Thus, the initial value of 'j' will then be equal to the
-                     * expression i(wordLength + 3), or simply 8, and so on and so forth
-                     * 
-                     * By adding the length of the words plus the length of these three
-                     * miscellaneous characters before multiplying, we can safely extract the
-                     * necessary characters from the byte array.
-                     */
-                    for (int j = i * (wordLength + 3); buffer.length() < wordLength; j++) {
-                        if (Character.isAlphabetic(rawReturnedData[j])) {
-                            buffer += (char) rawReturnedData[j];
-                        }
-                    }
-                    // Adding the word to the file plus a line separator
-                    output.append(buffer + System.lineSeparator());
-                    buffer = ""; // Resetting buffer back to an empty String
+                // Each word's bytes go straight from the source into 'lines' plus a line
+                // separator, so no String is made for any of them. The file is only
+                // written once every word has arrived, so a failed or malformed response
+                // leaves it untouched
+                final byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+                final ByteArrayOutputStream lines = new ByteArrayOutputStream(wordAmount * (wordLength + 2));
+                wordSource.generate(wordAmount, wordLength, (buffer, offset, length) -> {
+                    lines.write(buffer, offset, length);
+                    lines.write(separator, 0, separator.length);
+                });
+                try (final FileOutputStream output = new FileOutputStream(file, append)) {
+                    lines.writeTo(output);
                 }
-                output.close();
+                generateWordsInFileMetric.record(start);
             } catch (final Exception ex) {
+                generateWordsInFileMetric.recordError(start, ex);
                 ex.printStackTrace();
             }
         }
@@ -231,38 +232,125 @@ final public class RandomWord {
      */
     final public static String[] generateWordsInArray(final int wordAmount, final int wordLength) {
         if (wordAmount > 0 && wordLength > MIN_WORD_LENGTH) {
+            final long start = generateWordsInArrayMetric.start();
             try {
-                final URLConnection wordSource = new URI(String.format(
-                        "https://random-word-api.herokuapp.com/word?number=%d&length=%d", wordAmount, wordLength))
-                        .toURL().openConnection();
-                wordSource.setConnectTimeout(BASE_READ_TIMEOUT * 2);
-                wordSource.setReadTimeout(BASE_READ_TIMEOUT * 2);
-                final byte[] rawReturnedData = wordSource.getInputStream().readAllBytes();
-
-                final String[] wordsArray = new String[wordAmount];
-                for (int i = 0; i < wordAmount; i++) {
-
-                    // Reads the rest of the returned bytes
-                    // Uses the same methodology as generateWordsInFile() to pull the words from
-                    // 'rawReturnedData'
-                    String buffer = "";
-                    for (int j = i * (wordLength + 3); buffer.length() < wordLength; j++) {
-                        if (Character.isAlphabetic(rawReturnedData[j])) {
-                            buffer += (char) rawReturnedData[j];
-                        }
-                    }
-                    // Adding the word to the array
-                    wordsArray[i] = buffer;
-                    buffer = ""; // Resetting buffer back to an empty String
-                }
-                return wordsArray;
+                final String[] words = wordSource.generate(wordAmount, wordLength);
+                generateWordsInArrayMetric.record(start);
+                return words;
             } catch (final Exception e) {
+                generateWordsInArrayMetric.recordError(start, e);
                 e.printStackTrace();
             }
         }
         return null;
     }
 
+    /**
+     * Like {@code generateWord()}, but without blocking the calling thread.
+     * 
+     * @param wordLength
+     * @return A future completed with a string of {@code wordLength} length, or
+     *         with {@code null} upon failure.
+     */
+    final public static CompletableFuture<String> generateWordAsync(final int wordLength) {
+        final long start = generateWordMetric.start();
+        return wordSource.generateAsync(1, wordLength).handle((words, failure) -> {
+            if (failure == null && words.length > 0 && !words[0].isBlank()) {
+                generateWordMetric.record(start);
+                return words[0];
+            } else if (failure == null) {
+                generateWordMetric.recordError(start, "NoWord");
+            } else {
+                generateWordMetric.recordError(start,
+                        failure instanceof CompletionException ? failure.getCause() : failure);
+                System.err.println("Exception in generateWordAsync()");
+                System.err.printf("Exception message: %s\n Passed arguments: %s\n Trace: ", failure.getMessage(),
+                        wordLength);
+                failure.printStackTrace();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Like {@code generateWordsInArray()}, but without blocking the calling
+     * thread.
+     * 
+     * @param wordAmount (> 0)
+     * @param wordLength (> 1)
+     * @return A future completed with an array of {@code String}s, or with
+     *         {@code null} upon failure.
+     */
+    final public static CompletableFuture<String[]> generateWordsInArrayAsync(final int wordAmount,
+            final int wordLength) {
+        if (wordAmount <= 0 || wordLength <= MIN_WORD_LENGTH) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final long start = generateWordsInArrayMetric.start();
+        return wordSource.generateAsync(wordAmount, wordLength).handle((words, failure) -> {
+            if (failure != null) {
+                generateWordsInArrayMetric.recordError(start,
+                        failure instanceof CompletionException ? failure.getCause() : failure);
+                failure.printStackTrace();
+            } else {
+                generateWordsInArrayMetric.record(start);
+            }
+            return words;
+        });
+    }
+
+    /**
+     * Like {@code generateWordsInFile()}, but without blocking the calling
+     * thread. The words are written once they have all arrived.
+     * 
+     * @param file
+     * @param wordAmount (> 0)
+     * @param wordLength (> 1)
+     * @param append
+     * @return A future completed with {@code true} once the words are written, or
+     *         with {@code false} upon failure.
+     */
+    final public static CompletableFuture<Boolean> generateWordsInFileAsync(final File file, final int wordAmount,
+            final int wordLength, final boolean append) {
+        if (wordAmount <= 0 || wordLength <= MIN_WORD_LENGTH) {
+            return CompletableFuture.completedFuture(false);
+        }
+        final long start = generateWordsInFileMetric.start();
+        return generateWordsInArrayAsync(wordAmount, wordLength).thenApply(words -> {
+            if (words == null) { // Already printed and recorded by generateWordsInArrayAsync()
+                generateWordsInFileMetric.recordError(start, "NoWords");
+                return false;
+            }
+            final byte[] separator = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+            try (final OutputStream output = new BufferedOutputStream(new FileOutputStream(file, append))) {
+                for (final String word : words) {
+                    output.write(word.getBytes(StandardCharsets.UTF_8));
+                    output.write(separator);
+                }
+                generateWordsInFileMetric.record(start);
+                return true;
+            } catch (final IOException ex) {
+                generateWordsInFileMetric.recordError(start, ex);
+                ex.printStackTrace();
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Pulls the words out of a raw response from the word API, which is a JSON
+     * array of strings such as {@code ["looie","ninny","bocce"]}.
+     * The words may be of any length.
+     * 
+     * @param rawReturnedData
+     * @return An array of the words, in order.
+     * @throws IOException If {@code rawReturnedData} is not a JSON array of
+     *                     strings
+     */
+    final static String[] parseWords(final byte[] rawReturnedData) throws IOException {
+        return WordArrayParser.parseToArray(rawReturnedData);
+    }
+
     // Tests
     // A completely successful run will print out a success message to 'System.out'
     // Otherwise, any relevant data will be printed to 'System.err'
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * A {@code Dictionary} backed by the online dictionary API.
+ * Every lookup costs an HTTP round trip, so this is best used as a fallback
+ * behind a {@code LocalDictionary}. Lookups go through the
+ * {@code SharedHttpClient}, so they reuse its open connections.
+ */
+final public class RemoteDictionary implements Dictionary {
+    /** The default endpoint; the word being looked up is appended to it. */
+    final public static String DEFAULT_URL = "https://api.dictionaryapi.dev/api/v2/entries/en/";
+
+    /** How long a request should wait for a response. */
+    final public static int DEFAULT_READ_TIMEOUT = 10000;
+
+    /** The endpoint that words are appended to when looked up. */
+    final private String dictionaryURL;
+
+    /** How failed lookups are retried. */
+    final private RetryPolicy retry;
+
+    public RemoteDictionary() {
+        this(DEFAULT_URL);
+    }
+
+    /**
+     * @param dictionaryURL An endpoint that responds with a 404 for unknown words
+     */
+    public RemoteDictionary(final String dictionaryURL) {
+        this(dictionaryURL, RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * @param dictionaryURL An endpoint that responds with a 404 for unknown words
+     * @param retry         How failed lookups are retried
+     */
+    public RemoteDictionary(final String dictionaryURL, final RetryPolicy retry) {
+        this.dictionaryURL = dictionaryURL;
+        this.retry = retry;
+    }
+
+    @Override
+    public boolean contains(final String word) throws IOException {
+        return SharedHttpClient.await(containsAsync(word));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> containsAsync(final String word) {
+        final HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(dictionaryURL + word))
+                    .timeout(Duration.ofMillis(DEFAULT_READ_TIMEOUT))
+                    .GET()
+                    .build();
+        } catch (final IllegalArgumentException badWord) {
+            return CompletableFuture.failedFuture(new IOException(badWord));
+        }
+
+        // Only the status matters: the API responds with a 404 if the word is invalid
+        return SharedHttpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding(), retry)
+                .thenApply(response -> {
+                    final int status = response.statusCode();
+                    if (status == 404) {
+                        return false;
+                    } else if (status / 100 != 2) {
+                        throw new CompletionException(
+                                new IOException("Dictionary responded with status " + status + " for " + word));
+                    }
+                    return true;
+                });
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retry;
+    }
+}
@@ -0,0 +1,123 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@code WordSource} backed by the online random word API.
+ * Every call costs an HTTP round trip and stalls or fails whenever the service
+ * does, so a {@code LocalWordSource} is preferred when a word list is
+ * available. Requests go through the {@code SharedHttpClient}, so they reuse
+ * its open connections.
+ */
+final public class RemoteWordSource implements WordSource {
+    /**
+     * The default endpoint; the {@code number} and {@code length} query
+     * parameters are appended to it.
+     */
+    final public static String DEFAULT_URL = "https://random-word-api.herokuapp.com/word";
+
+    /** How long a request should wait for a response. */
+    final public static int DEFAULT_READ_TIMEOUT = 10000;
+
+    /** The endpoint that queries are appended to. */
+    final private String wordURL;
+
+    /** How failed requests are retried. */
+    final private RetryPolicy retry;
+
+    public RemoteWordSource() {
+        this(DEFAULT_URL);
+    }
+
+    /**
+     * @param wordURL An endpoint that responds to {@code ?number=N&length=L}
+     *                with a JSON array of N words of length L
+     */
+    public RemoteWordSource(final String wordURL) {
+        this(wordURL, RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * @param wordURL An endpoint that responds to {@code ?number=N&length=L}
+     *                with a JSON array of N words of length L
+     * @param retry   How failed requests are retried
+     */
+    public RemoteWordSource(final String wordURL, final RetryPolicy retry) {
+        this.wordURL = wordURL;
+        this.retry = retry;
+    }
+
+    @Override
+    public String[] generate(final int wordAmount, final int wordLength) throws IOException {
+        final ArrayList<String> words = new ArrayList<String>(wordAmount);
+        generate(wordAmount, wordLength,
+                (buffer, offset, length) -> words.add(new String(buffer, offset, length, StandardCharsets.UTF_8)));
+        return words.toArray(new String[words.size()]);
+    }
+
+    @Override
+    public int generate(final int wordAmount, final int wordLength, final WordArrayParser.WordSink sink)
+            throws IOException {
+        final HttpResponse<InputStream> response = SharedHttpClient.send(request(wordAmount, wordLength),
+                HttpResponse.BodyHandlers.ofInputStream(), retry);
+
+        // The response is parsed as it streams in
+        try (final InputStream body = response.body()) {
+            checkStatus(response.statusCode());
+            return WordArrayParser.parse(body, sink);
+        }
+    }
+
+    @Override
+    public CompletableFuture<String[]> generateAsync(final int wordAmount, final int wordLength) {
+        final HttpRequest request;
+        try {
+            request = request(wordAmount, wordLength);
+        } catch (final IOException badURL) {
+            return CompletableFuture.failedFuture(badURL);
+        }
+        return SharedHttpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray(), retry)
+                .thenApply(response -> {
+                    final ArrayList<String> words = new ArrayList<String>(wordAmount);
+                    try {
+                        checkStatus(response.statusCode());
+                        WordArrayParser.parse(ByteBuffer.wrap(response.body()),
+                                (buffer, offset, length) -> words
+                                        .add(new String(buffer, offset, length, StandardCharsets.UTF_8)));
+                    } catch (final IOException malformed) {
+                        throw new UncheckedIOException(malformed);
+                    }
+                    return words.toArray(new String[words.size()]);
+                });
+    }
+
+    private HttpRequest request(final int wordAmount, final int wordLength) throws IOException {
+        try {
+            return HttpRequest.newBuilder(
+                    URI.create(String.format("%s?number=%d&length=%d", wordURL, wordAmount, wordLength)))
+                    .timeout(Duration.ofMillis(DEFAULT_READ_TIMEOUT))
+                    .GET()
+                    .build();
+        } catch (final IllegalArgumentException badURL) {
+            throw new IOException(badURL);
+        }
+    }
+
+    private static void checkStatus(final int status) throws IOException {
+        if (status / 100 != 2) {
+            throw new IOException("Word API responded with status " + status);
+        }
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retry;
+    }
+}
@@ -0,0 +1,268 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces outbound requests so bulk jobs run as fast as a server allows without
+ * tripping its rate limits.
+ * 
+ * Two limits apply to every request:
+ * <ul>
+ * <li>A concurrency limit that adapts to the server (AIMD). Every request that
+ * comes back healthy raises the limit by {@code 1 / limit}, so it grows by about
+ * one per round of requests. A request that comes back congested (a
+ * {@code 429}, a {@code 5xx}, an I/O failure, or slower than
+ * {@code latencyThresholdMillis}) multiplies the limit by
+ * {@code backoffRatio}. Only requests started after the last decrease can
+ * lower it again, so a burst of failures from one round counts once.</li>
+ * <li>A token bucket refilled at {@code requestsPerSecond}, so the request rate never exceeds that ceiling
+ * however high the concurrency limit climbs.</li>
+ * </ul>
+ * A request takes its concurrency slot first and its token second, so while the
+ * bucket is empty, requests waiting out their token delay count towards the
+ * concurrency limit, and the limit is not fully used. This is on purpose.
+ * Taking tokens first would let requests that already paid for a token pile up
+ * behind the concurrency limit, then start all at once when slots free up,
+ * going over the rate ceiling. Latency is measured from when the permit is
+ * handed out, after any token delay, so that delay never counts as a slow
+ * response.
+ * 
+ * Permits are handed out asynchronously, so waiting for one never blocks a
+ * thread. All methods are thread-safe.
+ */
+final public class RequestLimiter {
+    /** The default ceiling on requests per second. */
+    final public static double DEFAULT_REQUESTS_PER_SECOND = 20;
+    /** The default number of requests allowed in flight to begin with. */
+    final public static int DEFAULT_INITIAL_LIMIT = 8;
+    /** The default bounds of the adaptive concurrency limit. */
+    final public static int DEFAULT_MIN_LIMIT = 1, DEFAULT_MAX_LIMIT = 64;
+    /** The default latency above which a response counts as congested. */
+    final public static long DEFAULT_LATENCY_THRESHOLD_MILLIS = 2000;
+    /** The default factor the limit is multiplied by upon congestion. */
+    final public static double DEFAULT_BACKOFF_RATIO = 0.5;
+
+    /**
+     * Allows one request in flight, which is released once the response (or
+     * failure) is in, or for a streamed response, once its body is done.
+     */
+    final public class Permit {
+        final private long startedAt = System.nanoTime();
+        private boolean isReleased = false;
+
+        private Permit() {
+        }
+
+        /**
+         * Gives the permit back, adapting the concurrency limit to how the request
+         * went. Releasing a permit more than once has no effect.
+         * 
+         * @param isCongested Whether the server pushed back ({@code 429},
+         *                    {@code 5xx}, or an I/O failure)
+         */
+        public void release(final boolean isCongested) {
+            RequestLimiter.this.release(this, isCongested);
+        }
+    }
+
+    final private double requestsPerSecond;
+    final private double burst;
+    final private int minLimit;
+    final private int maxLimit;
+    final private long latencyThresholdNanos;
+    final private double backoffRatio;
+
+    /** Requests waiting for a free slot, in arrival order. */
+    final private ArrayDeque<CompletableFuture<Permit>> waiting = new ArrayDeque<CompletableFuture<Permit>>();
+    private double limit;
+    private int inFlight = 0;
+    /** {@code System.nanoTime()} of the last decrease of {@code limit}. */
+    private long lastDecreaseAt;
+
+    /** Tokens left in the bucket; negative once requests are reserved ahead. */
+    private double tokens;
+    /** {@code System.nanoTime()} of the last refill of {@code tokens}. */
+    private long lastRefillAt;
+
+    private long completed = 0;
+    private long increases = 0;
+    private long decreases = 0;
+    private long throttledNanos = 0;
+
+    /**
+     * Creates a limiter using every default.
+     */
+    public RequestLimiter() {
+        this(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_INITIAL_LIMIT, DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT,
+                DEFAULT_LATENCY_THRESHOLD_MILLIS, DEFAULT_BACKOFF_RATIO);
+    }
+
+    /**
+     * @param requestsPerSecond      (> 0) The ceiling on requests started per
+     *                               second; {@code Double.POSITIVE_INFINITY}
+     *                               disables it. After a quiet spell, up to
+     *                               {@code min(requestsPerSecond, maxLimit)} may
+     *                               start at once.
+     * @param initialLimit           The number of requests allowed in flight to
+     *                               begin with
+     * @param minLimit               (> 0) The lowest the concurrency limit can fall
+     * @param maxLimit               (>= minLimit) The highest the concurrency
+     *                               limit can climb
+     * @param latencyThresholdMillis (> 0) The latency above which a response
+     *                               counts as congested
+     * @param backoffRatio           (0 < ratio < 1) The factor the limit is
+     *                               multiplied by upon congestion
+     */
+    public RequestLimiter(final double requestsPerSecond, final int initialLimit, final int minLimit,
+            final int maxLimit, final long latencyThresholdMillis, final double backoffRatio) {
+        if (!(requestsPerSecond > 0) || minLimit < 1 || maxLimit < minLimit || latencyThresholdMillis < 1
+                || !(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("Invalid limiter settings");
+        }
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = Math.max(1, Math.min(requestsPerSecond, maxLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMillis);
+        this.backoffRatio = backoffRatio;
+
+        limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        tokens = burst;
+        lastRefillAt = lastDecreaseAt = System.nanoTime();
+    }
+
+    /**
+     * Asks for permission to start a request.
+     * 
+     * @return A future completed with a {@code Permit} once a slot is free and the
+     *         rate allows. The permit must be released once the request is done.
+     */
+    public CompletableFuture<Permit> acquire() {
+        final CompletableFuture<Permit> request = new CompletableFuture<Permit>();
+        final long delayNanos;
+        synchronized (this) {
+            if (inFlight >= (int) limit || !waiting.isEmpty()) {
+                waiting.add(request);
+                return request;
+            }
+            inFlight++;
+            delayNanos = reserveToken();
+        }
+        grant(request, delayNanos);
+        return request;
+    }
+
+    /**
+     * Takes a token from the bucket, going into debt if it is empty.
+     * 
+     * @return How long to wait until the token is actually available.
+     */
+    private long reserveToken() {
+        if (requestsPerSecond == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+        final long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefillAt) * requestsPerSecond / 1e9);
+        lastRefillAt = now;
+        tokens--;
+        if (tokens >= 0) {
+            return 0;
+        }
+        final long delay = (long) (-tokens / requestsPerSecond * 1e9);
+        throttledNanos += delay;
+        return delay;
+    }
+
+    /** Completes {@code request} with a new permit once {@code delayNanos} passes. */
+    private void grant(final CompletableFuture<Permit> request, final long delayNanos) {
+        if (delayNanos <= 0) {
+            complete(request);
+        } else {
+            CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> complete(request));
+        }
+    }
+
+    private void complete(final CompletableFuture<Permit> request) {
+        final Permit permit = new Permit();
+        if (!request.complete(permit)) {
+            // The caller gave up while waiting, so the slot goes to someone else
+            release(permit, false, false);
+        }
+    }
+
+    private void release(final Permit permit, final boolean isCongested) {
+        release(permit, isCongested, true);
+    }
+
+    private void release(final Permit permit, final boolean isCongested, final boolean isAdapting) {
+        final ArrayList<CompletableFuture<Permit>> ready = new ArrayList<CompletableFuture<Permit>>();
+        final ArrayList<Long> delays = new ArrayList<Long>();
+        synchronized (this) {
+            if (permit.isReleased) {
+                return;
+            }
+            permit.isReleased = true;
+            inFlight--;
+            completed++;
+
+            if (isAdapting) {
+                final long now = System.nanoTime();
+                if (isCongested || now - permit.startedAt > latencyThresholdNanos) {
+                    // Only the first congested response of a round lowers the limit
+                    if (permit.startedAt > lastDecreaseAt) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        lastDecreaseAt = now;
+                        decreases++;
+                    }
+                } else if (limit < maxLimit) {
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+                    increases++;
+                }
+            }
+
+            while (inFlight < (int) limit && !waiting.isEmpty()) {
+                inFlight++;
+                ready.add(waiting.poll());
+                delays.add(reserveToken());
+            }
+        }
+        // Completed outside the lock, since completing runs the waiting requests
+        for (int i = 0; i < ready.size(); i++) {
+            grant(ready.get(i), delays.get(i));
+        }
+    }
+
+    /**
+     * @return The current concurrency limit.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return The number of requests currently in flight.
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return The number of requests waiting for a slot.
+     */
+    public synchronized int getWaiting() {
+        return waiting.size();
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format(
+                "RequestLimiter[limit=%d (%d-%d), inFlight=%d, waiting=%d, completed=%d, increases=%d, decreases=%d, rate=%.1f/s, throttled=%d ms]",
+                (int) limit, minLimit, maxLimit, inFlight, waiting.size(), completed, increases, decreases,
+                requestsPerSecond, TimeUnit.NANOSECONDS.toMillis(throttledNanos));
+    }
+}
@@ -0,0 +1,88 @@
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a remote request is retried after a transient failure, such as a dropped
+ * connection, a timeout, a {@code 429 Too Many Requests}, or any {@code 5xx}
+ * response.
+ * 
+ * Retries are spaced out with exponential backoff and "full jitter": the wait
+ * before retry {@code n} is a random duration between zero and
+ * {@code min(maxDelay, baseDelay * 2^(n - 1))}. The randomness keeps many
+ * clients that failed together from all retrying at the same instant.
+ */
+final public class RetryPolicy {
+    /** Makes a single attempt, never retrying. */
+    final public static RetryPolicy NONE = new RetryPolicy(1, 0, 0);
+
+    /** Three attempts in total, waiting up to 0.2 s and then up to 0.4 s. */
+    final public static RetryPolicy DEFAULT = new RetryPolicy(3, 200, 2000);
+
+    final private int maxAttempts;
+    final private long baseDelayMillis;
+    final private long maxDelayMillis;
+
+    /**
+     * @param maxAttempts     (> 0) The most attempts made in total, including the
+     *                        first
+     * @param baseDelayMillis (>= 0) The longest wait before the first retry
+     * @param maxDelayMillis  (>= 0) The longest wait before any retry
+     */
+    public RetryPolicy(final int maxAttempts, final long baseDelayMillis, final long maxDelayMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        if (baseDelayMillis < 0 || maxDelayMillis < 0) {
+            throw new IllegalArgumentException("delays cannot be negative");
+        }
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * @param attempt (> 1) The attempt about to be made
+     * @return How many milliseconds to wait before making {@code attempt}.
+     */
+    public long delayBefore(final int attempt) {
+        // Capping the shift keeps the doubling from overflowing
+        final long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 2, 30));
+        return ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * @param statusCode An HTTP status code
+     * @return {@code true} if a response with {@code statusCode} is worth
+     *         retrying.
+     */
+    public boolean isRetryable(final int statusCode) {
+        return statusCode == 429 || statusCode >= 500;
+    }
+
+    /**
+     * @param failure Why a request failed
+     * @return {@code true} if a request that failed with {@code failure} is worth
+     *         retrying; only I/O failures (including timeouts) are.
+     */
+    public boolean isRetryable(final Throwable failure) {
+        return failure instanceof IOException;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getBaseDelayMillis() {
+        return baseDelayMillis;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RetryPolicy[attempts=%d, baseDelay=%d ms, maxDelay=%d ms]", maxAttempts,
+                baseDelayMillis, maxDelayMillis);
+    }
+}
@@ -0,0 +1,385 @@
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The one {@code HttpClient} that every remote lookup goes through.
+ * 
+ * Sharing a single client lets requests to the same host reuse its pooled
+ * connections instead of paying a fresh TCP and TLS handshake each time, and
+ * lets HTTP/2 servers multiplex concurrent requests over one connection.
+ * Requests are sent asynchronously; the blocking {@code send()} simply waits on
+ * {@code sendAsync()}, so both take the same path, retries included.
+ */
+final public class SharedHttpClient {
+    /** How long opening a new connection may take. */
+    final public static int DEFAULT_CONNECT_TIMEOUT = 5000;
+
+    private static volatile HttpClient client = createDefaultClient();
+
+    /**
+     * Paces every request sent through the shared client; may be {@code null} to
+     * send requests as soon as they are made.
+     */
+    private static volatile RequestLimiter limiter = new RequestLimiter();
+
+    /** The number of retries made across every request, for reporting. */
+    final private static AtomicLong retries = new AtomicLong();
+
+    private SharedHttpClient() {
+    }
+
+    /**
+     * Builds the client used when none has been set through {@code set()}.
+     * It prefers HTTP/2, falling back to HTTP/1.1 for servers without it, and
+     * follows redirects.
+     * 
+     * @return A new {@code HttpClient}
+     */
+    final public static HttpClient createDefaultClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(DEFAULT_CONNECT_TIMEOUT))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Replaces the shared client, for instance to add a proxy or change timeouts.
+     * Requests already in flight finish on the old client.
+     * 
+     * @param newClient (non-null)
+     */
+    final public static void set(final HttpClient newClient) {
+        if (newClient == null) {
+            throw new IllegalArgumentException("client cannot be null");
+        }
+        client = newClient;
+    }
+
+    /**
+     * @return The shared {@code HttpClient}.
+     */
+    final public static HttpClient get() {
+        return client;
+    }
+
+    /**
+     * Replaces the limiter that paces every request, for instance to raise the
+     * rate ceiling for a server known to allow it.
+     * 
+     * @param newLimiter The new limiter, or {@code null} to disable limiting
+     */
+    final public static void setLimiter(final RequestLimiter newLimiter) {
+        limiter = newLimiter;
+    }
+
+    /**
+     * @return The limiter pacing every request, or {@code null} if limiting is
+     *         disabled.
+     */
+    final public static RequestLimiter getLimiter() {
+        return limiter;
+    }
+
+    /**
+     * @return The number of retries made across every request so far.
+     */
+    final public static long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Sends {@code request} without blocking, retrying transient failures as
+     * {@code retry} allows. Responses that are not worth retrying (including
+     * errors such as a {@code 404}) complete the future as they are.
+     * A body streamed as an {@code InputStream} keeps its limiter permit until it
+     * is read to the end or closed, so the transfer counts towards the
+     * concurrency limit and the measured latency; such bodies must be closed.
+     * 
+     * @param <T>
+     * @param request
+     * @param bodyHandler
+     * @param retry
+     * @return A future completed with the final response, or completed
+     *         exceptionally with the final failure.
+     */
+    final public static <T> CompletableFuture<HttpResponse<T>> sendAsync(final HttpRequest request,
+            final HttpResponse.BodyHandler<T> bodyHandler, final RetryPolicy retry) {
+        return attempt(request, bodyHandler, retry, 1);
+    }
+
+    private static <T> CompletableFuture<HttpResponse<T>> attempt(final HttpRequest request,
+            final HttpResponse.BodyHandler<T> bodyHandler, final RetryPolicy retry, final int attempt) {
+        final RequestLimiter currentLimiter = limiter;
+        final CompletableFuture<HttpResponse<T>> sent = currentLimiter == null ? client.sendAsync(request, bodyHandler)
+                : currentLimiter.acquire().thenCompose(permit -> {
+                    final CompletableFuture<HttpResponse<T>> response;
+                    try {
+                        response = client.sendAsync(request, responseInfo -> holdPermit(
+                                bodyHandler.apply(responseInfo), permit,
+                                retry.isRetryable(responseInfo.statusCode())));
+                    } catch (final RuntimeException rejected) {
+                        // The request never left (such as an unsupported URI), so it says nothing
+                        // about the server, but its slot must still be given back
+                        permit.release(false);
+                        throw rejected;
+                    }
+                    return response.whenComplete((sentResponse, failure) -> {
+                        // Anything worth retrying means the server is pushing back
+                        if (failure != null) {
+                            permit.release(retry.isRetryable(unwrap(failure)));
+                        } else if (!(sentResponse.body() instanceof PermitHoldingStream)) {
+                            permit.release(retry.isRetryable(sentResponse.statusCode()));
+                        }
+                    });
+                });
+
+        return sent.handle((response, failure) -> {
+            final Throwable cause = unwrap(failure);
+            final boolean isRetryable = cause != null ? retry.isRetryable(cause)
+                    : retry.isRetryable(response.statusCode());
+
+            if (!isRetryable || attempt >= retry.getMaxAttempts()) {
+                return cause != null ? CompletableFuture.<HttpResponse<T>>failedFuture(cause)
+                        : CompletableFuture.completedFuture(response);
+            }
+            if (response != null && response.body() instanceof AutoCloseable unread) {
+                // Freeing the connection held by a streamed body that will never be read
+                try {
+                    unread.close();
+                } catch (final Exception ignored) {
+                }
+            }
+            retries.incrementAndGet();
+            return CompletableFuture.runAsync(() -> {
+            }, CompletableFuture.delayedExecutor(retry.delayBefore(attempt + 1), TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> attempt(request, bodyHandler, retry, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Hands the body of a response over in a {@code PermitHoldingStream} if it is
+     * streamed, and as it is otherwise.
+     * 
+     * @param isCongested How to release {@code permit} once the stream is done
+     */
+    @SuppressWarnings("unchecked") // A streamed body is only ever replaced by another InputStream
+    private static <T> HttpResponse.BodySubscriber<T> holdPermit(final HttpResponse.BodySubscriber<T> subscriber,
+            final RequestLimiter.Permit permit, final boolean isCongested) {
+        return HttpResponse.BodySubscribers.mapping(subscriber,
+                body -> body instanceof InputStream stream ? (T) new PermitHoldingStream(stream, permit, isCongested)
+                        : body);
+    }
+
+    /**
+     * A streamed response body that gives its limiter permit back once it is read
+     * to the end or closed, or fails to read.
+     */
+    final private static class PermitHoldingStream extends FilterInputStream {
+        final private RequestLimiter.Permit permit;
+        final private boolean isCongested;
+
+        PermitHoldingStream(final InputStream body, final RequestLimiter.Permit permit, final boolean isCongested) {
+            super(body);
+            this.permit = permit;
+            this.isCongested = isCongested;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                final int read = super.read();
+                if (read == -1) {
+                    permit.release(isCongested);
+                }
+                return read;
+            } catch (final IOException failure) {
+                permit.release(true);
+                throw failure;
+            }
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            try {
+                final int read = super.read(buffer, offset, length);
+                if (read == -1) {
+                    permit.release(isCongested);
+                }
+                return read;
+            } catch (final IOException failure) {
+                permit.release(true);
+                throw failure;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            permit.release(isCongested); // Has no effect if the body was already read through
+            super.close();
+        }
+    }
+
+    private static Throwable unwrap(final Throwable failure) {
+        return failure instanceof CompletionException ? failure.getCause() : failure;
+    }
+
+    /**
+     * Sends {@code request} and blocks until the final response arrives.
+     * 
+     * @param <T>
+     * @param request
+     * @param bodyHandler
+     * @param retry
+     * @return The final response.
+     * @throws IOException If the request failed on every attempt, or the wait was
+     *                     interrupted
+     */
+    final public static <T> HttpResponse<T> send(final HttpRequest request,
+            final HttpResponse.BodyHandler<T> bodyHandler, final RetryPolicy retry) throws IOException {
+        return await(sendAsync(request, bodyHandler, retry));
+    }
+
+    /**
+     * Blocks until {@code future} completes, turning its failure back into an
+     * {@code IOException}.
+     * 
+     * @param <T>
+     * @param future
+     * @return The result of {@code future}.
+     * @throws IOException If {@code future} failed or the wait was interrupted
+     */
+    final public static <T> T await(final CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (final InterruptedException interrupt) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a response");
+        } catch (final ExecutionException failed) {
+            final Throwable cause = failed.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            } else if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // Tests
+    // Runs RemoteDictionary and RemoteWordSource against a local stub server, so no
+    // network access is needed. A completely successful run prints only to
+    // 'System.out'; any failure is printed to 'System.err'
+    public static void main(final String[] args) throws Exception {
+        final AtomicInteger dictionaryRequests = new AtomicInteger();
+        final HttpServer stub = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+
+        // Knows a single word, and fails the first lookup of every word to exercise
+        // retries
+        final Set<String> lookedUp = ConcurrentHashMap.newKeySet();
+        stub.createContext("/entries/", exchange -> {
+            final String word = exchange.getRequestURI().getPath().substring("/entries/".length());
+            dictionaryRequests.incrementAndGet();
+            final int status = lookedUp.add(word) ? 503 : word.equals("crane") ? 200 : 404;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        // Answers '?number=N&length=L' with N copies of a word of length L
+        stub.createContext("/word", exchange -> {
+            int number = 1;
+            int length = 5;
+            for (final String parameter : exchange.getRequestURI().getQuery().split("&")) {
+                final String[] pair = parameter.split("=");
+                if (pair[0].equals("number")) {
+                    number = Integer.parseInt(pair[1]);
+                } else if (pair[0].equals("length")) {
+                    length = Integer.parseInt(pair[1]);
+                }
+            }
+            final String[] words = new String[number];
+            Arrays.fill(words, "\"" + "z".repeat(length) + "\"");
+            final byte[] body = ("[" + String.join(",", words) + "]").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        stub.start();
+        final String base = "http://127.0.0.1:" + stub.getAddress().getPort();
+        System.out.println("Beginning test runs on class SharedHttpClient against " + base);
+
+        final RemoteDictionary dictionary = new RemoteDictionary(base + "/entries/", new RetryPolicy(3, 10, 50));
+        final RemoteWordSource wordSource = new RemoteWordSource(base + "/word", RetryPolicy.NONE);
+        try {
+            report("contains(\"crane\")", dictionary.contains("crane"), true);
+            report("contains(\"xqzt\")", dictionary.contains("xqzt"), false);
+            report("containsAsync(\"crane\")", dictionary.containsAsync("crane").join(), true);
+
+            // Many lookups at once share the client's pooled connections
+            final CompletableFuture<?>[] lookups = new CompletableFuture<?>[64];
+            for (int i = 0; i < lookups.length; i++) {
+                lookups[i] = dictionary.containsAsync(i % 2 == 0 ? "crane" : "slate");
+            }
+            CompletableFuture.allOf(lookups).join();
+            report("64 concurrent lookups", (Boolean) lookups[62].join() && !(Boolean) lookups[63].join(), true);
+            System.out.printf("%d dictionary requests made, %d of them retries\n", dictionaryRequests.get(),
+                    getRetries());
+
+            report("generate(10, 6)", wordSource.generate(10, 6).length, 10);
+            report("generateAsync(3, 4)[0]", wordSource.generateAsync(3, 4).join()[0], "zzzz");
+
+            // 200 requests at 100 per second, of which up to 64 may start at once
+            setLimiter(new RequestLimiter(100, 8, 1, 64, 1000, 0.5));
+            final long startTime = System.nanoTime();
+            final CompletableFuture<?>[] paced = new CompletableFuture<?>[200];
+            for (int i = 0; i < paced.length; i++) {
+                paced[i] = wordSource.generateAsync(1, 5);
+            }
+            CompletableFuture.allOf(paced).join();
+            final long elapsed = (System.nanoTime() - startTime) / 1000000;
+            report("200 requests paced to 100/s", elapsed >= 1300, true);
+            System.out.printf("Paced requests took %d ms; %s\n", elapsed, getLimiter());
+
+            // A streamed body holds its permit until it is closed
+            final HttpResponse<InputStream> streamed = send(
+                    HttpRequest.newBuilder(URI.create(base + "/word?number=2&length=5")).build(),
+                    HttpResponse.BodyHandlers.ofInputStream(), RetryPolicy.NONE);
+            report("inFlight while a body streams", getLimiter().getInFlight(), 1);
+            streamed.body().close();
+            report("inFlight once the body is closed", getLimiter().getInFlight(), 0);
+        } finally {
+            stub.stop(0);
+        }
+    }
+
+    private static void report(final String test, final Object actual, final Object expected) {
+        if (actual.equals(expected)) {
+            System.out.printf("%s success: %s\n", test, actual);
+        } else {
+            System.err.printf("%s returned %s instead of %s\n", test, actual, expected);
+        }
+    }
+}
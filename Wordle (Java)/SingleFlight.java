@@ -0,0 +1,153 @@
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent requests for the same key into a single call.
+ * 
+ * The first caller to ask about a key becomes its "leader" and starts the call;
+ * anyone asking about the same key while that call is still in flight shares its
+ * result instead of starting another. Once the call completes, the key is
+ * forgotten, so later callers start afresh (results are not cached; that is
+ * what {@code VerdictCache} is for).
+ * 
+ * Every flight has its own timeout, counted from when its leader started it. A
+ * flight that times out fails for all of its callers and is forgotten, so one
+ * hung request never holds up later lookups of the same key.
+ * All methods are thread-safe.
+ * 
+ * @param <K> The key requests are coalesced by
+ * @param <V> The result of a call
+ */
+final public class SingleFlight<K, V> {
+    /** The default time a flight may take before it fails: 30 seconds. */
+    final public static long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    /** The flights currently in progress, by key. */
+    final private ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<K, CompletableFuture<V>>();
+
+    final private long timeoutMillis;
+
+    /** Calls actually made. */
+    final private AtomicLong calls = new AtomicLong();
+    /** Requests that joined a flight already in progress instead of calling. */
+    final private AtomicLong saved = new AtomicLong();
+    /** Flights that failed by running out of time. */
+    final private AtomicLong timeouts = new AtomicLong();
+
+    /**
+     * Creates a {@code SingleFlight} using {@code DEFAULT_TIMEOUT_MILLIS}.
+     */
+    public SingleFlight() {
+        this(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * @param timeoutMillis (> 0) How long a flight may take before it fails
+     */
+    public SingleFlight(final long timeoutMillis) {
+        if (timeoutMillis < 1) {
+            throw new IllegalArgumentException("timeoutMillis must be positive");
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Runs {@code call} for {@code key}, unless a call for {@code key} is already
+     * in flight, in which case its result is shared instead.
+     * 
+     * @param key
+     * @param call Starts the call; only run by the leader
+     * @return A future completed with the result of the flight, or completed
+     *         exceptionally if it failed or timed out ({@code TimeoutException}).
+     *         Each caller gets its own future, so cancelling one does not affect
+     *         anyone else sharing the flight.
+     */
+    public CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> call) {
+        return execute(key, call, timeoutMillis);
+    }
+
+    /**
+     * Like {@code execute(key, call)}, but with a timeout of its own for this key.
+     * The timeout only applies if this caller ends up leading the flight.
+     * 
+     * @param key
+     * @param call          Starts the call; only run by the leader
+     * @param timeoutMillis (> 0) How long the flight may take before it fails
+     * @return A future completed with the result of the flight.
+     */
+    public CompletableFuture<V> execute(final K key, final Supplier<CompletableFuture<V>> call,
+            final long timeoutMillis) {
+        final CompletableFuture<V> flight = new CompletableFuture<V>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            saved.incrementAndGet();
+            return existing.copy();
+        }
+
+        calls.incrementAndGet();
+        flight.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        // Forgetting the flight however it ends, so later callers start afresh
+        flight.whenComplete((result, failure) -> {
+            if (failure instanceof TimeoutException) {
+                timeouts.incrementAndGet();
+            }
+            inFlight.remove(key, flight);
+        });
+
+        try {
+            call.get().whenComplete((result, failure) -> {
+                if (failure != null) {
+                    flight.completeExceptionally(failure);
+                } else {
+                    flight.complete(result);
+                }
+            });
+        } catch (final RuntimeException failedToStart) {
+            flight.completeExceptionally(failedToStart);
+        }
+        return flight.copy();
+    }
+
+    /**
+     * @return The number of flights currently in progress.
+     */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * @return The number of calls actually made.
+     */
+    public long getCalls() {
+        return calls.get();
+    }
+
+    /**
+     * @return The number of requests that shared a flight already in progress,
+     *         which is the number of calls saved.
+     */
+    public long getSaved() {
+        return saved.get();
+    }
+
+    /**
+     * @return The number of flights that timed out.
+     */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("SingleFlight[inFlight=%d, calls=%d, saved=%d, timeouts=%d]", inFlight.size(),
+                calls.get(), saved.get(), timeouts.get());
+    }
+}
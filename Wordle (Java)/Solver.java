@@ -0,0 +1,296 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Ranks guesses by how much they are expected to reveal about the Wordle.
+ * 
+ * For every guess, the remaining candidate answers are split up by the pattern
+ * the guess would score against each of them. The entropy of that split (in
+ * bits) is the expected information the guess reveals: a guess that spreads the
+ * candidates evenly over many patterns narrows them down the most.
+ * 
+ * Guesses are evaluated in parallel on the common {@code ForkJoinPool}. Every
+ * word is handled in the packed form produced by {@code WordBank.pack()}.
+ */
+final public class Solver {
+    /**
+     * The number of guesses a single fork-join task evaluates before splitting
+     * the work any further.
+     */
+    final static int GUESSES_PER_TASK = 64;
+
+    private Solver() {
+    }
+
+    /**
+     * Computes how many bits of information each guess is expected to reveal
+     * about which of {@code candidates} is the Wordle.
+     * 
+     * @param guesses    The packed guesses to evaluate
+     * @param candidates The packed answers that are still possible
+     * @return An array where index {@code i} holds the entropy of
+     *         {@code guesses[i]}, in bits.
+     */
+    final public static double[] entropies(final int[] guesses, final int[] candidates) {
+        final double[] entropies = new double[guesses.length];
+        ForkJoinPool.commonPool()
+                .invoke(new EntropyTask(guesses, null, candidates, entropies, 0, guesses.length));
+        return entropies;
+    }
+
+    /**
+     * Like {@code entropies(int[], int[])}, but looks every pattern up in a
+     * precomputed {@code FeedbackMatrix} instead of scoring it.
+     * 
+     * @param matrix           The patterns of every guess against every answer
+     * @param candidateIndices The indices (columns of {@code matrix}) of the
+     *                         answers that are still possible
+     * @return An array where index {@code i} holds the entropy of guess (row)
+     *         {@code i}, in bits.
+     */
+    final public static double[] entropies(final FeedbackMatrix matrix, final int[] candidateIndices) {
+        final double[] entropies = new double[matrix.guessCount()];
+        ForkJoinPool.commonPool()
+                .invoke(new EntropyTask(null, matrix, candidateIndices, entropies, 0, entropies.length));
+        return entropies;
+    }
+
+    /**
+     * Computes the entropy of a single guess against {@code candidates}.
+     * 
+     * @param guess      A packed guess
+     * @param candidates The packed answers that are still possible
+     * @param counts     Scratch space of at least {@code GuessScorer.PATTERN_COUNT}
+     *                   elements, reused between calls to avoid allocating
+     * @return The expected information revealed by {@code guess}, in bits.
+     */
+    final public static double entropy(final int guess, final int[] candidates, final int[] counts) {
+        Arrays.fill(counts, 0, GuessScorer.PATTERN_COUNT, 0);
+        for (final int candidate : candidates) {
+            counts[GuessScorer.score(guess, candidate)]++;
+        }
+        return entropy(counts, candidates.length);
+    }
+
+    /**
+     * Computes the entropy of a single guess, looking its patterns up in
+     * {@code matrix}.
+     * 
+     * @param matrix           The patterns of every guess against every answer
+     * @param guessIndex       The index (row of {@code matrix}) of the guess
+     * @param candidateIndices The indices (columns of {@code matrix}) of the
+     *                         answers that are still possible
+     * @param counts           Scratch space of at least
+     *                         {@code GuessScorer.PATTERN_COUNT} elements
+     * @return The expected information revealed by the guess, in bits.
+     */
+    final public static double entropy(final FeedbackMatrix matrix, final int guessIndex,
+            final int[] candidateIndices, final int[] counts) {
+        Arrays.fill(counts, 0, GuessScorer.PATTERN_COUNT, 0);
+        for (final int candidateIndex : candidateIndices) {
+            counts[matrix.pattern(guessIndex, candidateIndex)]++;
+        }
+        return entropy(counts, candidateIndices.length);
+    }
+
+    /**
+     * @param counts How many candidates fall under each pattern
+     * @param total  The number of candidates
+     * @return The entropy of the split described by {@code counts}, in bits.
+     */
+    private static double entropy(final int[] counts, final int total) {
+        // H = log2(n) - (1/n) * sum(c * log2(c)), which saves a division per pattern
+        double weightedSum = 0;
+        for (int pattern = 0; pattern < GuessScorer.PATTERN_COUNT; pattern++) {
+            final int count = counts[pattern];
+            if (count > 1) {
+                weightedSum += count * Math.log(count);
+            }
+        }
+        return total == 0 ? 0 : (Math.log(total) - weightedSum / total) / Math.log(2);
+    }
+
+    /**
+     * Orders {@code guesses} from the most to the least informative.
+     * Among equally informative guesses, those that could be the Wordle
+     * themselves come first, since they might win outright.
+     * 
+     * @param guesses    The packed guesses to rank
+     * @param candidates The packed answers that are still possible
+     * @return The indices of {@code guesses}, best first.
+     */
+    final public static int[] rank(final int[] guesses, final int[] candidates) {
+        return rank(entropies(guesses, candidates), guesses, candidates);
+    }
+
+    /**
+     * Orders {@code guesses} by {@code entropies}, best first; see
+     * {@code rank(int[], int[])}.
+     */
+    private static int[] rank(final double[] entropies, final int[] guesses, final int[] candidates) {
+        final int[] sortedCandidates = candidates.clone();
+        Arrays.sort(sortedCandidates);
+
+        final Integer[] order = new Integer[guesses.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (first, second) -> {
+            final int byEntropy = Double.compare(entropies[second], entropies[first]);
+            if (byEntropy != 0) {
+                return byEntropy;
+            }
+            return Boolean.compare(Arrays.binarySearch(sortedCandidates, guesses[second]) >= 0,
+                    Arrays.binarySearch(sortedCandidates, guesses[first]) >= 0);
+        });
+
+        final int[] ranking = new int[order.length];
+        for (int i = 0; i < ranking.length; i++) {
+            ranking[i] = order[i];
+        }
+        return ranking;
+    }
+
+    /**
+     * Picks the most informative guess.
+     * 
+     * @param guesses    The packed guesses to choose from
+     * @param candidates The packed answers that are still possible
+     * @return The best packed guess, or {@code -1} if there are no candidates
+     *         left.
+     */
+    final public static int bestGuess(final int[] guesses, final int[] candidates) {
+        if (candidates.length <= 2) {
+            // Guessing a candidate either wins or leaves only the other one
+            return candidates.length == 0 ? -1 : candidates[0];
+        }
+        return guesses[rank(guesses, candidates)[0]];
+    }
+
+    /**
+     * Like {@code bestGuess(int[], int[])}, but looks every pattern up in
+     * {@code matrix} instead of scoring it.
+     * 
+     * @param matrix     The patterns of every word in {@code words} against every
+     *                   word in {@code words}, in order
+     * @param words      The packed words {@code matrix} was built from, which are
+     *                   also the guesses to choose from
+     * @param candidates The packed answers that are still possible, all from
+     *                   {@code words}
+     * @return The best packed guess, or {@code -1} if there are no candidates
+     *         left.
+     */
+    final public static int bestGuess(final FeedbackMatrix matrix, final int[] words, final int[] candidates) {
+        if (matrix.guessCount() != words.length || matrix.answerCount() != words.length) {
+            throw new IllegalArgumentException("The matrix was not built from these words");
+        }
+        if (candidates.length <= 2) {
+            return candidates.length == 0 ? -1 : candidates[0];
+        }
+
+        // Finding each candidate's column by sorting the words along with their indices
+        final long[] indexed = new long[words.length];
+        for (int i = 0; i < words.length; i++) {
+            indexed[i] = (long) words[i] << 32 | i;
+        }
+        Arrays.sort(indexed);
+        final int[] candidateIndices = new int[candidates.length];
+        for (int i = 0; i < candidates.length; i++) {
+            final int found = Arrays.binarySearch(indexed, (long) candidates[i] << 32);
+            final int position = found >= 0 ? found : -found - 1;
+            if (position == indexed.length || (int) (indexed[position] >>> 32) != candidates[i]) {
+                throw new IllegalArgumentException(WordBank.unpack(candidates[i], GameState.WORD_LENGTH)
+                        + " is not one of the matrix's words");
+            }
+            candidateIndices[i] = (int) indexed[position];
+        }
+        return words[rank(entropies(matrix, candidateIndices), words, candidates)[0]];
+    }
+
+    /**
+     * Filters {@code answers} down to the words that could still be the Wordle,
+     * given every guess scored so far in {@code state}.
+     * 
+     * @param state
+     * @param answers Every packed answer the game could have picked
+     * @return The packed answers consistent with every scored guess.
+     */
+    final public static int[] remainingCandidates(final GameState state, final int[] answers) {
+        final int[] guesses = new int[state.getAttempt()];
+        final int[] patterns = new int[state.getAttempt()];
+        for (int i = 0; i < guesses.length; i++) {
+            guesses[i] = state.getGuess(i);
+            patterns[i] = state.getPattern(i);
+        }
+        return remainingCandidates(guesses, patterns, answers);
+    }
+
+    /**
+     * Filters {@code answers} down to the words that could still be the Wordle,
+     * given the guesses scored so far.
+     * 
+     * @param guesses  Every packed guess scored so far
+     * @param patterns The pattern each of {@code guesses} scored
+     * @param answers  Every packed answer the game could have picked
+     * @return The packed answers consistent with every scored guess.
+     */
+    final public static int[] remainingCandidates(final int[] guesses, final int[] patterns,
+            final int[] answers) {
+        final int[] remaining = new int[answers.length];
+        int count = 0;
+        for (final int answer : answers) {
+            boolean isConsistent = true;
+            for (int i = 0; i < guesses.length && isConsistent; i++) {
+                isConsistent = GuessScorer.score(guesses[i], answer) == patterns[i];
+            }
+            if (isConsistent) {
+                remaining[count++] = answer;
+            }
+        }
+        return Arrays.copyOf(remaining, count);
+    }
+
+    /**
+     * Computes the entropies of a range of guesses, splitting the range in half
+     * until it is small enough to evaluate directly.
+     */
+    final private static class EntropyTask extends RecursiveAction {
+        final private static long serialVersionUID = 1L;
+
+        /** The packed guesses, or {@code null} if {@code matrix} is used instead. */
+        final private int[] guesses;
+        /** The precomputed patterns, or {@code null} if they are scored instead. */
+        final private transient FeedbackMatrix matrix;
+        /** Packed candidates, or candidate indices into {@code matrix}. */
+        final private int[] candidates;
+        final private double[] entropies;
+        final private int start;
+        final private int end;
+
+        EntropyTask(final int[] guesses, final FeedbackMatrix matrix, final int[] candidates,
+                final double[] entropies, final int start, final int end) {
+            this.guesses = guesses;
+            this.matrix = matrix;
+            this.candidates = candidates;
+            this.entropies = entropies;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= GUESSES_PER_TASK) {
+                final int[] counts = new int[GuessScorer.PATTERN_COUNT];
+                for (int i = start; i < end; i++) {
+                    entropies[i] = matrix != null ? entropy(matrix, i, candidates, counts)
+                            : entropy(guesses[i], candidates, counts);
+                }
+            } else {
+                final int middle = (start + end) >>> 1;
+                invokeAll(new EntropyTask(guesses, matrix, candidates, entropies, start, middle),
+                        new EntropyTask(guesses, matrix, candidates, entropies, middle, end));
+            }
+        }
+    }
+}
@@ -0,0 +1,438 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of dictionary verdicts placed in front of
+ * {@code WordCheck.checkWord()}, so asking about the same word twice never
+ * costs a second lookup.
+ * Both positive ("is a word") and negative ("is not a word") verdicts are
+ * stored, each with their own time-to-live. Verdicts can be saved to and loaded
+ * from disk so they survive restarts. All methods are thread-safe.
+ * 
+ * Lookups never lock: verdicts live in a {@code ConcurrentHashMap}, and a hit
+ * only records when it happened if that changed since the last hit. Eviction is
+ * an approximate LRU. Every verdict is stamped with the number of verdicts
+ * cached before it was last used, and once the cache holds more than
+ * {@code maxEntries}, a single thread drops the least recently used tenth of
+ * them, along with anything expired. Every verdict used since the last one was
+ * cached shares a stamp, so ties are broken arbitrarily, but never more than
+ * the tenth is dropped. Other threads keep caching
+ * meanwhile, so the cache can briefly hold a few more than {@code maxEntries}.
+ */
+final public class VerdictCache {
+    /** The default number of verdicts a cache holds before evicting. */
+    final public static int DEFAULT_MAX_ENTRIES = 10000;
+    /** The default lifetime of a "is a word" verdict: 30 days. */
+    final public static long DEFAULT_POSITIVE_TTL_MILLIS = 30L * 24 * 60 * 60 * 1000;
+    /** The default lifetime of a "is not a word" verdict: 1 day. */
+    final public static long DEFAULT_NEGATIVE_TTL_MILLIS = 24L * 60 * 60 * 1000;
+
+    /** A single cached verdict. */
+    final private static class Entry {
+        final boolean isWord;
+        /** Wall-clock time ({@code System.currentTimeMillis()}) of expiry. */
+        final long expiresAt;
+        /** The value of {@code clock} when the verdict was last cached or used. */
+        volatile long lastUsed;
+
+        Entry(final boolean isWord, final long expiresAt, final long lastUsed) {
+            this.isWord = isWord;
+            this.expiresAt = expiresAt;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    final private int maxEntries;
+    final private long positiveTtlMillis;
+    final private long negativeTtlMillis;
+
+    final private ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    /** Counts the verdicts cached so far; used as the time of every access. */
+    final private AtomicLong clock = new AtomicLong();
+    /** Held by the one thread evicting at a time. */
+    final private Object evictionLock = new Object();
+    private volatile boolean isEvicting = false;
+
+    final private LongAdder hits = new LongAdder();
+    final private LongAdder misses = new LongAdder();
+    final private LongAdder evictions = new LongAdder();
+    final private LongAdder expirations = new LongAdder();
+
+    /**
+     * Creates a cache using {@code DEFAULT_MAX_ENTRIES},
+     * {@code DEFAULT_POSITIVE_TTL_MILLIS} and {@code DEFAULT_NEGATIVE_TTL_MILLIS}.
+     */
+    public VerdictCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_POSITIVE_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS);
+    }
+
+    /**
+     * @param maxEntries        (> 0) How many verdicts are kept before the least
+     *                          recently used ones are evicted
+     * @param positiveTtlMillis (> 0) How long a "is a word" verdict stays valid
+     * @param negativeTtlMillis (> 0) How long a "is not a word" verdict stays
+     *                          valid
+     */
+    public VerdictCache(final int maxEntries, final long positiveTtlMillis, final long negativeTtlMillis) {
+        if (maxEntries < 1 || positiveTtlMillis < 1 || negativeTtlMillis < 1) {
+            throw new IllegalArgumentException("Cache size and lifetimes must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.positiveTtlMillis = positiveTtlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+    }
+
+    /**
+     * Looks up the cached verdict for {@code word}.
+     * 
+     * @param word
+     * @return {@code Boolean.TRUE} if {@code word} is cached as a word,
+     *         {@code Boolean.FALSE} if it is cached as not being a word, or
+     *         {@code null} if there is no live verdict for it.
+     */
+    public Boolean get(final String word) {
+        final Entry entry = entries.get(word);
+        if (entry != null) {
+            if (entry.expiresAt > System.currentTimeMillis()) {
+                // Popular words are hit far more often than anything is cached, so most
+                // hits find their stamp already current and write nothing
+                final long now = clock.get();
+                if (entry.lastUsed != now) {
+                    entry.lastUsed = now;
+                }
+                hits.increment();
+                return entry.isWord;
+            }
+            if (entries.remove(word, entry)) {
+                expirations.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a verdict for {@code word}, replacing any existing one.
+     * 
+     * @param word
+     * @param isWord
+     */
+    public void put(final String word, final boolean isWord) {
+        final long ttl = isWord ? positiveTtlMillis : negativeTtlMillis;
+        put(word, isWord, System.currentTimeMillis() + ttl);
+    }
+
+    private void put(final String word, final boolean isWord, final long expiresAt) {
+        entries.put(word, new Entry(isWord, expiresAt, clock.incrementAndGet()));
+        if (entries.size() > maxEntries && !isEvicting) {
+            evict();
+        }
+    }
+
+    /**
+     * Drops expired verdicts and then the least recently used ones until a tenth
+     * of {@code maxEntries} is free. Only one thread evicts at a time; any other
+     * thread arriving meanwhile leaves it to that one.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            if (isEvicting || entries.size() <= maxEntries) {
+                return;
+            }
+            isEvicting = true;
+        }
+        try {
+            purgeExpired();
+            final int target = maxEntries - maxEntries / 10;
+            final int excess = entries.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+
+            // Finding the 'excess'-th oldest stamp
+            final long[] stamps = new long[entries.size()];
+            int count = 0;
+            for (final Entry entry : entries.values()) {
+                if (count == stamps.length) {
+                    break;
+                }
+                stamps[count++] = entry.lastUsed;
+            }
+            Arrays.sort(stamps, 0, count);
+            final long cutoff = stamps[Math.min(excess, count) - 1];
+
+            // Everything used before the cutoff goes first, then only as many of those
+            // sharing its stamp as are still needed, so ties never drop more than 'excess'
+            final int remaining = excess - evictOlderThan(cutoff, Integer.MAX_VALUE, false);
+            if (remaining > 0) {
+                evictOlderThan(cutoff, remaining, true);
+            }
+        } finally {
+            isEvicting = false;
+        }
+    }
+
+    /**
+     * Removes up to {@code limit} verdicts last used before {@code cutoff}, or at
+     * it if {@code isInclusive}.
+     * 
+     * @return The number of verdicts removed.
+     */
+    private int evictOlderThan(final long cutoff, final int limit, final boolean isInclusive) {
+        int removed = 0;
+        for (final Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (removed >= limit) {
+                break;
+            }
+            final long lastUsed = entry.getValue().lastUsed;
+            if ((lastUsed < cutoff || isInclusive && lastUsed == cutoff)
+                    && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        evictions.add(removed);
+        return removed;
+    }
+
+    /** Removes every cached verdict. Counters are left as they are. */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return The number of verdicts currently cached, including any that have
+     *         expired but have not been looked up since.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return How many lookups were answered from the cache. */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** @return How many lookups found no live verdict. */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** @return How many verdicts were dropped to stay within the size limit. */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** @return How many verdicts were dropped for outliving their TTL. */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VerdictCache[size=%d/%d, hits=%d, misses=%d, evictions=%d, expirations=%d]",
+                entries.size(), maxEntries, getHits(), getMisses(), getEvictions(), getExpirations());
+    }
+
+    /**
+     * Writes every live verdict to {@code file}, one per line, as
+     * {@code word 1|0 expiry}. The file is written to a temporary file first and
+     * then atomically moved over {@code file}, so an interrupted save never leaves
+     * a broken file behind.
+     * 
+     * @param file
+     * @throws IOException If {@code file} could not be written
+     */
+    public void save(final File file) throws IOException {
+        final long now = System.currentTimeMillis();
+
+        // Written from least to most recently used, so loading them back in the same
+        // order restores the LRU order as well. Lookups keep restamping verdicts while
+        // this runs, so each stamp is copied once and sorted on that copy
+        final ArrayList<SavedVerdict> verdicts = new ArrayList<SavedVerdict>(entries.size());
+        for (final Map.Entry<String, Entry> verdict : entries.entrySet()) {
+            if (verdict.getValue().expiresAt > now) {
+                verdicts.add(new SavedVerdict(verdict.getKey(), verdict.getValue()));
+            }
+        }
+        verdicts.sort((first, second) -> Long.compare(first.lastUsed, second.lastUsed));
+
+        // Unique to this save, so processes saving to the same file at once never
+        // write into each other's temporary file
+        final Path target = file.toPath().toAbsolutePath();
+        final Path temporary = Files.createTempFile(target.getParent(), file.getName(), ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+                for (final SavedVerdict verdict : verdicts) {
+                    writer.write(verdict.word);
+                    writer.write(verdict.entry.isWord ? " 1 " : " 0 ");
+                    writer.write(Long.toString(verdict.entry.expiresAt));
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException notAtomic) {
+                // Some file systems cannot rename atomically; a plain replace is the next best
+                // thing
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary); // Only still there if the save failed
+        }
+    }
+
+    /** A verdict being saved, with the stamp it had when the save began. */
+    final private static class SavedVerdict {
+        final String word;
+        final Entry entry;
+        final long lastUsed;
+
+        SavedVerdict(final String word, final Entry entry) {
+            this.word = word;
+            this.entry = entry;
+            this.lastUsed = entry.lastUsed;
+        }
+    }
+
+    /**
+     * Adds the live verdicts stored in {@code file} by {@code save()} to this
+     * cache. Malformed lines are skipped. Nothing happens if {@code file} does not
+     * exist.
+     * 
+     * @param file
+     * @return The number of verdicts loaded.
+     * @throws IOException If {@code file} exists but could not be read
+     */
+    public int load(final File file) throws IOException {
+        if (!file.isFile()) {
+            return 0;
+        }
+        final long now = System.currentTimeMillis();
+        int loaded = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split(" ");
+                if (fields.length != 3) {
+                    continue;
+                }
+                try {
+                    final long expiresAt = Long.parseLong(fields[2]);
+                    if (expiresAt > now) {
+                        put(fields[0], fields[1].equals("1"), expiresAt);
+                        loaded++;
+                    }
+                } catch (final NumberFormatException malformed) {
+                    continue;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /** Drops every expired verdict at once rather than waiting for lookups. */
+    public void purgeExpired() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+    }
+
+    // Tests
+    // A completely successful run prints only to 'System.out'; any failure is
+    // printed to 'System.err'
+    public static void main(final String[] args) {
+        System.out.println("Beginning test runs on class VerdictCache");
+        final long day = DEFAULT_NEGATIVE_TTL_MILLIS;
+
+        // Every verdict hit since the last put shares one stamp, which must not flush
+        // them all at once
+        final VerdictCache allHit = new VerdictCache(100, day, day);
+        for (int i = 0; i < 100; i++) {
+            allHit.put("w" + i, true);
+        }
+        for (int i = 0; i < 100; i++) {
+            allHit.get("w" + i);
+        }
+        allHit.put("newest", true);
+        report("size() after evicting tied verdicts", allHit.size(), 90);
+        report("getEvictions() after evicting tied verdicts", allHit.getEvictions(), 11L);
+        report("get(\"newest\") after evicting tied verdicts", allHit.get("newest"), Boolean.TRUE);
+
+        // Verdicts hit recently outlive those that were not
+        final VerdictCache halfHit = new VerdictCache(100, day, day);
+        for (int i = 0; i < 100; i++) {
+            halfHit.put("w" + i, i % 2 == 0);
+        }
+        for (int i = 0; i < 50; i++) {
+            halfHit.get("w" + i);
+        }
+        halfHit.put("newest", false);
+        int hitKept = 0;
+        for (int i = 0; i < 50; i++) {
+            if (halfHit.get("w" + i) != null) {
+                hitKept++;
+            }
+        }
+        report("size() after evicting unused verdicts", halfHit.size(), 90);
+        report("hit verdicts kept after evicting unused verdicts", hitKept, 50);
+        report("get(\"w50\") after evicting unused verdicts", String.valueOf(halfHit.get("w50")), "null");
+        report("get(\"newest\") after evicting unused verdicts", halfHit.get("newest"), Boolean.FALSE);
+
+        // Saving while other threads keep restamping verdicts
+        final Thread[] lookups = new Thread[4];
+        for (int t = 0; t < lookups.length; t++) {
+            final int offset = t;
+            lookups[t] = new Thread(() -> {
+                for (int i = 0; !Thread.currentThread().isInterrupted(); i++) {
+                    halfHit.get("w" + (i * 7 + offset) % 50);
+                    if (i % 1000 == 0) {
+                        halfHit.put("w" + offset, true); // Advancing the clock now and then
+                    }
+                }
+            });
+            lookups[t].start();
+        }
+        try {
+            final File file = File.createTempFile("verdicts", ".test");
+            file.deleteOnExit();
+            for (int i = 0; i < 200; i++) {
+                halfHit.save(file);
+            }
+            final VerdictCache loaded = new VerdictCache(100, day, day);
+            report("load() of a save made under lookups", loaded.load(file), halfHit.size());
+        } catch (final IOException | RuntimeException failure) {
+            System.err.printf("save() under lookups threw %s\n", failure);
+        } finally {
+            for (final Thread lookup : lookups) {
+                lookup.interrupt();
+            }
+        }
+    }
+
+    private static void report(final String test, final Object actual, final Object expected) {
+        if (actual.equals(expected)) {
+            System.out.printf("%s success: %s\n", test, actual);
+        } else {
+            System.err.printf("%s returned %s instead of %s\n", test, actual, expected);
+        }
+    }
+}
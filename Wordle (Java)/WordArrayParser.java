@@ -0,0 +1,404 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A streaming parser for JSON arrays of strings, such as the responses of the
+ * word API ({@code ["looie","ninny","bocce"]}).
+ * 
+ * Words may be of any length and the array may contain any whitespace or JSON
+ * string escapes. Input is consumed in chunks, so responses of any size are
+ * parsed in constant memory, and each word is handed to a {@code WordSink} as a
+ * range of UTF-8 bytes. Whenever a word sits entirely within one chunk and has
+ * no escapes, that range points straight into the chunk, so no copy of the word
+ * is ever made.
+ * 
+ * A {@code \\u} escape of a lone surrogate, one not paired up with the other
+ * half within the same word, becomes U+FFFD, just as {@code new String(bytes)}
+ * decodes malformed UTF-8.
+ */
+final public class WordArrayParser {
+    /** Receives each word of the array, in order. */
+    @FunctionalInterface
+    public static interface WordSink {
+        /**
+         * Receives a single word. The bytes are only valid until this method
+         * returns, so they must be copied to be kept.
+         * 
+         * @param buffer Holds the word's UTF-8 bytes
+         * @param offset Where the word starts within {@code buffer}
+         * @param length The number of bytes in the word
+         */
+        void word(byte[] buffer, int offset, int length);
+    }
+
+    /** How many bytes are read from an {@code InputStream} at a time. */
+    final static int CHUNK_SIZE = 8192;
+    /** Stands in for a lone surrogate. */
+    final private static int REPLACEMENT_CHARACTER = 0xFFFD;
+
+    // Where the parser is within the array
+    final private static int BEFORE_ARRAY = 0;
+    final private static int BEFORE_VALUE = 1;
+    final private static int IN_STRING = 2;
+    final private static int IN_ESCAPE = 3;
+    final private static int IN_UNICODE_ESCAPE = 4;
+    final private static int AFTER_VALUE = 5;
+    final private static int AFTER_ARRAY = 6;
+
+    final private WordSink sink;
+    private int state = BEFORE_ARRAY;
+    /** Whether a ']' may close the array here, i.e. it is empty so far. */
+    private boolean isArrayEmpty = true;
+    private int wordCount = 0;
+
+    /** Holds a word that spans chunks or contains escapes. */
+    private byte[] scratch = new byte[64];
+    private int scratchLength = 0;
+
+    /** The hex digits of a {@code \\u} escape read so far. */
+    private int unicodeValue;
+    private int unicodeDigits;
+    /** A high surrogate escape waiting for its low surrogate, or 0. */
+    private char pendingHighSurrogate = 0;
+
+    private WordArrayParser(final WordSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Parses a whole array from {@code input}, reading it until the end of the
+     * stream.
+     * 
+     * @param input
+     * @param sink  Receives each word
+     * @return The number of words in the array.
+     * @throws IOException If {@code input} could not be read or is not a JSON
+     *                     array of strings
+     */
+    final public static int parse(final InputStream input, final WordSink sink) throws IOException {
+        final WordArrayParser parser = new WordArrayParser(sink);
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+            parser.feed(chunk, 0, read);
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses a whole array from the remaining bytes of {@code input}.
+     * Heap buffers are parsed in place; other buffers (such as memory-mapped
+     * files) are copied out a chunk at a time.
+     * 
+     * @param input
+     * @param sink  Receives each word
+     * @return The number of words in the array.
+     * @throws IOException If {@code input} is not a JSON array of strings
+     */
+    final public static int parse(final ByteBuffer input, final WordSink sink) throws IOException {
+        final WordArrayParser parser = new WordArrayParser(sink);
+        if (input.hasArray()) {
+            parser.feed(input.array(), input.arrayOffset() + input.position(), input.remaining());
+            input.position(input.limit());
+        } else {
+            final byte[] chunk = new byte[Math.min(CHUNK_SIZE, input.remaining())];
+            while (input.hasRemaining()) {
+                final int length = Math.min(chunk.length, input.remaining());
+                input.get(chunk, 0, length);
+                parser.feed(chunk, 0, length);
+            }
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Parses a whole array into {@code String}s.
+     * 
+     * @param input
+     * @return Every word of the array, in order.
+     * @throws IOException If {@code input} is not a JSON array of strings
+     */
+    final public static String[] parseToArray(final byte[] input) throws IOException {
+        final ArrayList<String> words = new ArrayList<String>();
+        parse(ByteBuffer.wrap(input),
+                (buffer, offset, length) -> words.add(new String(buffer, offset, length, StandardCharsets.UTF_8)));
+        return words.toArray(new String[words.size()]);
+    }
+
+    /** Parses the next {@code length} bytes of input. */
+    private void feed(final byte[] chunk, final int offset, final int length) throws IOException {
+        final int end = offset + length;
+        int i = offset;
+        while (i < end) {
+            switch (state) {
+                case IN_STRING: {
+                    // Scanning ahead for the end of the word in one tight loop
+                    final int start = i;
+                    byte current = 0;
+                    while (i < end && (current = chunk[i]) != '"' && current != '\\') {
+                        i++;
+                    }
+                    if (i > start) { // Nothing can pair up with a high surrogate past this point
+                        flushSurrogate();
+                    }
+                    if (i == end) { // The word continues in the next chunk
+                        append(chunk, start, i - start);
+                    } else if (current == '"') {
+                        flushSurrogate();
+                        if (scratchLength == 0) {
+                            sink.word(chunk, start, i - start); // Straight from the input
+                        } else {
+                            append(chunk, start, i - start);
+                            sink.word(scratch, 0, scratchLength);
+                        }
+                        wordCount++;
+                        state = AFTER_VALUE;
+                        i++;
+                    } else { // An escape
+                        append(chunk, start, i - start);
+                        state = IN_ESCAPE;
+                        i++;
+                    }
+                    break;
+                }
+                case IN_ESCAPE:
+                    readEscape(chunk[i++]);
+                    break;
+                case IN_UNICODE_ESCAPE:
+                    readUnicodeDigit(chunk[i++]);
+                    break;
+                default:
+                    readStructure(chunk[i++]);
+            }
+        }
+    }
+
+    /** Handles a byte outside of any string. */
+    private void readStructure(final byte current) throws IOException {
+        if (current == ' ' || current == '\n' || current == '\r' || current == '\t') {
+            return;
+        }
+        switch (state) {
+            case BEFORE_ARRAY:
+                expect(current == '[', current);
+                state = BEFORE_VALUE;
+                break;
+            case BEFORE_VALUE:
+                if (current == ']' && isArrayEmpty) {
+                    state = AFTER_ARRAY;
+                } else {
+                    expect(current == '"', current);
+                    isArrayEmpty = false;
+                    scratchLength = 0;
+                    pendingHighSurrogate = 0;
+                    state = IN_STRING;
+                }
+                break;
+            case AFTER_VALUE:
+                if (current == ',') {
+                    state = BEFORE_VALUE;
+                } else {
+                    expect(current == ']', current);
+                    state = AFTER_ARRAY;
+                }
+                break;
+            default: // Nothing but whitespace may follow the array
+                expect(false, current);
+        }
+    }
+
+    /** Handles the byte following a backslash within a string. */
+    private void readEscape(final byte current) throws IOException {
+        state = IN_STRING;
+        switch (current) {
+            case '"':
+            case '\\':
+            case '/':
+                appendChar((char) current);
+                break;
+            case 'b':
+                appendChar('\b');
+                break;
+            case 'f':
+                appendChar('\f');
+                break;
+            case 'n':
+                appendChar('\n');
+                break;
+            case 'r':
+                appendChar('\r');
+                break;
+            case 't':
+                appendChar('\t');
+                break;
+            case 'u':
+                unicodeValue = 0;
+                unicodeDigits = 0;
+                state = IN_UNICODE_ESCAPE;
+                break;
+            default:
+                throw new IOException("Invalid escape \\" + (char) current + " after word " + wordCount);
+        }
+    }
+
+    /** Handles one of the four hex digits of a {@code \\u} escape. */
+    private void readUnicodeDigit(final byte current) throws IOException {
+        final int digit = Character.digit(current, 16);
+        if (digit < 0) {
+            throw new IOException("Invalid unicode escape after word " + wordCount);
+        }
+        unicodeValue = (unicodeValue << 4) | digit;
+        if (++unicodeDigits == 4) {
+            appendChar((char) unicodeValue);
+            state = IN_STRING;
+        }
+    }
+
+    /**
+     * Finishes parsing, making sure the whole array was read.
+     * 
+     * @return The number of words in the array.
+     */
+    private int finish() throws IOException {
+        if (state != AFTER_ARRAY) {
+            throw new IOException("Input ended before the end of the array, after word " + wordCount);
+        }
+        return wordCount;
+    }
+
+    private void expect(final boolean condition, final byte current) throws IOException {
+        if (!condition) {
+            throw new IOException(String.format("Unexpected '%c' after word %d", (char) current, wordCount));
+        }
+    }
+
+    /** Copies part of a word into {@code scratch}. */
+    private void append(final byte[] source, final int offset, final int length) {
+        ensureScratch(length);
+        System.arraycopy(source, offset, scratch, scratchLength, length);
+        scratchLength += length;
+    }
+
+    /** Appends an unescaped character to {@code scratch}, pairing up surrogates. */
+    private void appendChar(final char character) {
+        if (Character.isHighSurrogate(character)) {
+            flushSurrogate(); // Two high surrogates in a row leave the first unpaired
+            pendingHighSurrogate = character;
+        } else if (Character.isLowSurrogate(character)) {
+            if (pendingHighSurrogate != 0) {
+                appendCodePoint(Character.toCodePoint(pendingHighSurrogate, character));
+                pendingHighSurrogate = 0;
+            } else {
+                appendCodePoint(REPLACEMENT_CHARACTER);
+            }
+        } else {
+            flushSurrogate();
+            appendCodePoint(character);
+        }
+    }
+
+    /** Appends U+FFFD in place of a high surrogate that never got its low surrogate. */
+    private void flushSurrogate() {
+        if (pendingHighSurrogate != 0) {
+            pendingHighSurrogate = 0;
+            appendCodePoint(REPLACEMENT_CHARACTER);
+        }
+    }
+
+    /** Encodes {@code codePoint} as UTF-8 straight into {@code scratch}. */
+    private void appendCodePoint(final int codePoint) {
+        ensureScratch(4);
+        if (codePoint < 0x80) {
+            scratch[scratchLength++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            scratch[scratchLength++] = (byte) (0xC0 | codePoint >> 6);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint & 0x3F);
+        } else if (codePoint < 0x10000) {
+            scratch[scratchLength++] = (byte) (0xE0 | codePoint >> 12);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint & 0x3F);
+        } else {
+            scratch[scratchLength++] = (byte) (0xF0 | codePoint >> 18);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+            scratch[scratchLength++] = (byte) (0x80 | codePoint & 0x3F);
+        }
+    }
+
+    /** Makes room for {@code length} more bytes in {@code scratch}. */
+    private void ensureScratch(final int length) {
+        if (scratchLength + length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratch.length * 2, scratchLength + length));
+        }
+    }
+
+    // Tests
+    // Parses every case both whole and one byte at a time, which splits words and
+    // escapes across chunks. A completely successful run prints only to
+    // 'System.out'; any failure is printed to 'System.err'
+    public static void main(final String[] args) {
+        System.out.println("Beginning test runs on class WordArrayParser");
+        test("[\"crane\", \"slate\"]", "crane", "slate");
+        test(" [ ] ");
+        test("[\"a\\u00e9b\\n\\\"\\/\"]", "a\u00e9b\n\"/");
+        test("[\"\\u20ac\\u0000x\"]", "\u20ac\u0000x");
+        test("[\"\u00e9t\u00e9\"]", "\u00e9t\u00e9");
+        test("[\"\\ud83d\\ude00\"]", "\ud83d\ude00");
+        test("[\"x\\ud83d\\ude00y\\ud83d\\ude00\"]", "x\ud83d\ude00y\ud83d\ude00");
+        // Unpaired surrogates
+        test("[\"ab\\ud83d\"]", "ab\ufffd");
+        test("[\"\\ud83dxy\"]", "\ufffdxy");
+        test("[\"\\ud83d\\n\"]", "\ufffd\n");
+        test("[\"\\ude00\"]", "\ufffd");
+        test("[\"\\ud83d\\ud83d\\ude00\"]", "\ufffd\ud83d\ude00");
+        test("[\"\\ud83dx\\ude00\"]", "\ufffdx\ufffd");
+        test("[\"\\ud83d\",\"\\ude00\",\"ok\"]", "\ufffd", "\ufffd", "ok");
+        // Malformed arrays
+        test("[\"a\\x\"]", (String[]) null);
+        test("[\"a\\u12g4\"]", (String[]) null);
+        test("[\"a\",]", (String[]) null);
+        test("[\"a\"", (String[]) null);
+        test("\"a\"", (String[]) null);
+    }
+
+    /** Checks that {@code json} parses to {@code expected}, or fails to parse if it is {@code null}. */
+    private static void test(final String json, final String... expected) {
+        final byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        final String whole = describe(() -> Arrays.asList(parseToArray(bytes)));
+        final String bytewise = describe(() -> {
+            final ArrayList<String> words = new ArrayList<String>();
+            parse(new ByteArrayInputStream(bytes) {
+                @Override
+                public synchronized int read(final byte[] buffer, final int offset, final int length) {
+                    return super.read(buffer, offset, Math.min(length, 1));
+                }
+            }, (buffer, offset, length) -> words.add(new String(buffer, offset, length, StandardCharsets.UTF_8)));
+            return words;
+        });
+        final String wanted = expected == null ? "IOException" : Arrays.asList(expected).toString();
+        if (whole.equals(wanted) && bytewise.equals(wanted)) {
+            System.out.printf("parse(%s) success: %s\n", json, wanted);
+        } else {
+            System.err.printf("parse(%s) returned %s whole and %s byte by byte instead of %s\n", json, whole,
+                    bytewise, wanted);
+        }
+    }
+
+    @FunctionalInterface
+    private static interface Parse {
+        Object run() throws IOException;
+    }
+
+    private static String describe(final Parse parse) {
+        try {
+            return parse.run().toString();
+        } catch (final IOException e) {
+            return "IOException";
+        }
+    }
+}
@@ -0,0 +1,436 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A memory-mapped bank of words stored in a compact binary format.
+ * 
+ * Every word is packed into a single {@code int}, five bits per letter ('a' is
+ * 0, 'z' is 25) with the first letter in the highest bits, so a five-letter
+ * word takes 25 bits and a 100,000 word bank takes roughly 400 KB.
+ * 
+ * The file layout is, in big-endian order:
+ * 
+ * <pre>
+ * int   MAGIC ("WBNK")
+ * byte  VERSION
+ * byte  word length (every word in a bank has the same length)
+ * short reserved (0)
+ * int   word count
+ * int[] packed words
+ * </pre>
+ * 
+ * Reading a word by index costs a single {@code getInt()} on the mapped file,
+ * with no per-word objects created unless a word is turned back into a
+ * {@code String}.
+ */
+final public class WordBank {
+    /** The first four bytes of every bank: "WBNK". */
+    final public static int MAGIC = 0x57424E4B;
+    /** The version of the format written by this class. */
+    final public static byte VERSION = 1;
+    /** The size of the header preceding the packed words, in bytes. */
+    final public static int HEADER_SIZE = 12;
+    /** Where the word count is kept within the header. */
+    final static int COUNT_OFFSET = 8;
+
+    /** How many bits each packed letter takes. */
+    final public static int BITS_PER_LETTER = 5;
+    /** Masks a single packed letter. */
+    final static int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+    /** The longest word that still fits into an {@code int}. */
+    final public static int MAX_WORD_LENGTH = 6;
+
+    /** Keeps threads of this process from asking for the same file lock at once. */
+    final private static Object APPEND_LOCK = new Object();
+
+    /** The mapped contents of the bank file, header included. */
+    final private ByteBuffer buffer;
+    /** The length of every word in the bank. */
+    final private int wordLength;
+    /** The number of words in the bank. */
+    final private int size;
+
+    private WordBank(final ByteBuffer buffer, final int wordLength, final int size) {
+        this.buffer = buffer;
+        this.wordLength = wordLength;
+        this.size = size;
+    }
+
+    /**
+     * Packs {@code word} into an {@code int}.
+     * Upper case letters are packed as their lower case equivalents.
+     * 
+     * @param word
+     * @return The packed word, or {@code -1} if {@code word} is empty, longer than
+     *         {@code MAX_WORD_LENGTH}, or contains non-alphabetical characters.
+     */
+    final public static int pack(final CharSequence word) {
+        final int length = word.length();
+        if (length == 0 || length > MAX_WORD_LENGTH) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < length; i++) {
+            // Folding upper case into lower case; anything that is still out of range
+            // afterwards is not a letter
+            final int letter = (word.charAt(i) | 0x20) - 'a';
+            if (letter < 0 || letter > 25) {
+                return -1;
+            }
+            packed = (packed << BITS_PER_LETTER) | letter;
+        }
+        return packed;
+    }
+
+    /**
+     * Turns a packed word back into a lowercase {@code String}.
+     * 
+     * @param packed     A word packed by {@code pack()}
+     * @param wordLength The length of the word before it was packed
+     * @return The unpacked word.
+     */
+    final public static String unpack(final int packed, final int wordLength) {
+        final char[] letters = new char[wordLength];
+        for (int i = wordLength - 1, remaining = packed; i >= 0; i--, remaining >>>= BITS_PER_LETTER) {
+            letters[i] = (char) ('a' + (remaining & LETTER_MASK));
+        }
+        return new String(letters);
+    }
+
+    /**
+     * Gets a single letter out of a packed word without unpacking it.
+     * 
+     * @param packed     A word packed by {@code pack()}
+     * @param wordLength The length of the word before it was packed
+     * @param index      The position of the letter within the word
+     * @return The letter's offset from 'a' (0-25).
+     */
+    final public static int letterAt(final int packed, final int wordLength, final int index) {
+        return (packed >>> ((wordLength - 1 - index) * BITS_PER_LETTER)) & LETTER_MASK;
+    }
+
+    /**
+     * Memory-maps the bank stored in {@code file}.
+     * If the file is being appended to by {@code append()} at the same time, the
+     * mapping only covers the words that had been counted when it was made.
+     * 
+     * @param file
+     * @return The mapped bank.
+     * @throws IOException If {@code file} could not be read or is not a word bank
+     */
+    final public static WordBank open(final File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE) {
+                throw new IOException(file + " is too short to be a word bank");
+            }
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            final int wordLength = readHeader(mapped, file);
+
+            // A bank can never have more words than the file has room for, even if an
+            // interrupted append left the count ahead of the data
+            final int size = (int) Math.min(mapped.getInt(COUNT_OFFSET), (fileSize - HEADER_SIZE) / Integer.BYTES);
+            return new WordBank(mapped, wordLength, size);
+        }
+    }
+
+    /**
+     * Writes {@code words} to {@code file} as a brand new bank, replacing whatever
+     * was there. The bank is written to a temporary file first and then moved over
+     * {@code file}, so readers never see a partially written bank.
+     * Words that are not {@code wordLength} letters long are skipped.
+     * 
+     * @param file
+     * @param wordLength (1 - {@code MAX_WORD_LENGTH})
+     * @param words
+     * @return The number of words written.
+     * @throws IOException If {@code file} could not be written
+     */
+    final public static int write(final File file, final int wordLength, final String[] words) throws IOException {
+        checkWordLength(wordLength);
+        final File temporary = new File(file.getPath() + ".tmp");
+
+        final ByteBuffer packedWords = packAll(words, wordLength);
+        final int count = packedWords.remaining() / Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, createHeader(wordLength, count), 0);
+            writeFully(channel, packedWords, HEADER_SIZE);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    /**
+     * Adds {@code words} to the end of the bank in {@code file}, creating the bank
+     * if the file is missing or empty. The words are written before the count in
+     * the header is updated, so readers never see words that are only partially
+     * written. Words that are not {@code wordLength} letters long are skipped.
+     * The file is locked while it is written, so several processes can append to
+     * the same bank without corrupting it.
+     * 
+     * @param file
+     * @param wordLength (1 - {@code MAX_WORD_LENGTH})
+     * @param words
+     * @return The number of words appended.
+     * @throws IOException If {@code file} could not be written, or holds a bank of
+     *                     a different word length
+     */
+    final public static int append(final File file, final int wordLength, final String[] words) throws IOException {
+        return append(file, wordLength, words, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Like {@code append()}, but skips every word already in the bank (or repeated
+     * within {@code words}), and stops once the bank holds {@code maxSize} words.
+     * The bank is read and written under a single lock, so words added by another
+     * process in the meantime are never duplicated.
+     * 
+     * @param file
+     * @param wordLength (1 - {@code MAX_WORD_LENGTH})
+     * @param words
+     * @param maxSize    The most words the bank may hold afterwards
+     * @return The number of words appended.
+     * @throws IOException If {@code file} could not be written, or holds a bank of
+     *                     a different word length
+     */
+    final public static int appendDistinct(final File file, final int wordLength, final String[] words,
+            final int maxSize) throws IOException {
+        return append(file, wordLength, words, true, maxSize);
+    }
+
+    private static int append(final File file, final int wordLength, final String[] words, final boolean isDistinct,
+            final int maxSize) throws IOException {
+        checkWordLength(wordLength);
+        // File locks are held by the whole process, so threads of this process take
+        // turns before asking for one
+        synchronized (APPEND_LOCK) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // Blocks until no other process is appending to the bank
+                final FileLock lock = channel.lock();
+                try {
+                    int count = 0;
+                    if (channel.size() < HEADER_SIZE) { // A new bank
+                        writeFully(channel, createHeader(wordLength, 0), 0);
+                    } else {
+                        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                        readFully(channel, header, 0);
+                        if (readHeader(header, file) != wordLength) {
+                            throw new IOException(file + " holds words of a different length");
+                        }
+                        count = (int) Math.min(header.getInt(COUNT_OFFSET),
+                                (channel.size() - HEADER_SIZE) / Integer.BYTES);
+                    }
+
+                    ByteBuffer packedWords = packAll(words, wordLength);
+                    if (isDistinct) {
+                        packedWords = removeKnown(channel, count, packedWords, maxSize - count);
+                    }
+                    final int appended = packedWords.remaining() / Integer.BYTES;
+                    writeFully(channel, packedWords, HEADER_SIZE + (long) count * Integer.BYTES);
+
+                    // Only counting the new words once they have all been written
+                    final ByteBuffer newCount = ByteBuffer.allocate(Integer.BYTES).putInt(0, count + appended);
+                    writeFully(channel, newCount, COUNT_OFFSET);
+                    return appended;
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Filters {@code packedWords} down to at most {@code room} words that are
+     * neither among the first {@code count} words of the bank nor repeated.
+     * The bank's words and the new words are both sorted and then merged, so no
+     * word is ever boxed.
+     * 
+     * @return A buffer ready to be written, holding the remaining packed words in
+     *         their original order.
+     */
+    private static ByteBuffer removeKnown(final FileChannel channel, final int count, final ByteBuffer packedWords,
+            final int room) throws IOException {
+        final ByteBuffer existing = ByteBuffer.allocate(count * Integer.BYTES);
+        readFully(channel, existing, HEADER_SIZE);
+        final int[] known = new int[count];
+        existing.flip().asIntBuffer().get(known);
+        Arrays.sort(known);
+
+        // Each new word alongside its index, so sorting keeps repeats in their
+        // original order and the first of each can be kept
+        final int newCount = packedWords.remaining() / Integer.BYTES;
+        final long[] sorted = new long[newCount];
+        for (int i = 0; i < newCount; i++) {
+            sorted[i] = (long) packedWords.getInt(packedWords.position() + i * Integer.BYTES) << 32 | i;
+        }
+        Arrays.sort(sorted);
+
+        final boolean[] isNew = new boolean[newCount];
+        int k = 0;
+        for (int i = 0; i < newCount; i++) {
+            final int packed = (int) (sorted[i] >> 32);
+            if (i > 0 && (int) (sorted[i - 1] >> 32) == packed) {
+                continue; // A repeat of the previous word
+            }
+            while (k < count && known[k] < packed) {
+                k++;
+            }
+            isNew[(int) sorted[i]] = k == count || known[k] != packed;
+        }
+
+        final ByteBuffer distinct = ByteBuffer.allocate(packedWords.remaining());
+        for (int i = 0; i < newCount && distinct.position() / Integer.BYTES < room; i++) {
+            if (isNew[i]) {
+                distinct.putInt(packedWords.getInt(packedWords.position() + i * Integer.BYTES));
+            }
+        }
+        return distinct.flip();
+    }
+
+    /**
+     * Reads only the word count of the bank in {@code file}, without mapping it.
+     * 
+     * @param file
+     * @return The number of words in the bank, or {@code 0} if {@code file} does
+     *         not exist or is not a word bank.
+     */
+    final public static int sizeOf(final File file) {
+        try (RandomAccessFile bank = new RandomAccessFile(file, "r")) {
+            if (bank.length() >= HEADER_SIZE && bank.readInt() == MAGIC) {
+                bank.seek(COUNT_OFFSET);
+                return bank.readInt();
+            }
+        } catch (final IOException missing) {
+            // A missing or unreadable bank has no words in it
+        }
+        return 0;
+    }
+
+    /**
+     * @return The number of words in the bank.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return The length of every word in the bank.
+     */
+    public int wordLength() {
+        return wordLength;
+    }
+
+    /**
+     * @param index (0 - {@code size() - 1})
+     * @return The packed word at {@code index}.
+     */
+    public int packedAt(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+    }
+
+    /**
+     * @param index (0 - {@code size() - 1})
+     * @return The word at {@code index} as a lowercase {@code String}.
+     */
+    public String wordAt(final int index) {
+        return unpack(packedAt(index), wordLength);
+    }
+
+    /**
+     * Copies every packed word out of the bank.
+     * 
+     * @return A new array holding every packed word, in bank order.
+     */
+    public int[] toPackedArray() {
+        final int[] packedWords = new int[size];
+        buffer.slice(HEADER_SIZE, size * Integer.BYTES).asIntBuffer().get(packedWords);
+        return packedWords;
+    }
+
+    /**
+     * Validates the header at the start of {@code header}.
+     * 
+     * @return The word length stored in the header.
+     * @throws IOException If the header does not belong to a supported bank
+     */
+    private static int readHeader(final ByteBuffer header, final File file) throws IOException {
+        if (header.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a word bank");
+        }
+        if (header.get(4) != VERSION) {
+            throw new IOException(file + " is a word bank of unsupported version " + header.get(4));
+        }
+        final int wordLength = header.get(5);
+        if (wordLength < 1 || wordLength > MAX_WORD_LENGTH) {
+            throw new IOException(file + " has an invalid word length of " + wordLength);
+        }
+        return wordLength;
+    }
+
+    private static ByteBuffer createHeader(final int wordLength, final int count) {
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put((byte) wordLength)
+                .putShort((short) 0)
+                .putInt(count)
+                .flip();
+    }
+
+    /**
+     * Packs every word of {@code wordLength} letters in {@code words}, skipping
+     * the rest.
+     * 
+     * @return A buffer ready to be written, holding the packed words.
+     */
+    private static ByteBuffer packAll(final String[] words, final int wordLength) {
+        final ByteBuffer packedWords = ByteBuffer.allocate(words.length * Integer.BYTES);
+        for (final String word : words) {
+            if (word != null && word.length() == wordLength) {
+                final int packed = pack(word);
+                if (packed != -1) {
+                    packedWords.putInt(packed);
+                }
+            }
+        }
+        return packedWords.flip();
+    }
+
+    private static void checkWordLength(final int wordLength) {
+        if (wordLength < 1 || wordLength > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be between 1 and " + MAX_WORD_LENGTH);
+        }
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer source, final long position)
+            throws IOException {
+        for (long offset = position; source.hasRemaining();) {
+            offset += channel.write(source, offset);
+        }
+    }
+
+    private static void readFully(final FileChannel channel, final ByteBuffer destination, final long position)
+            throws IOException {
+        for (long offset = position; destination.hasRemaining();) {
+            final int read = channel.read(destination, offset);
+            if (read < 0) {
+                throw new IOException("Unexpected end of word bank");
+            }
+            offset += read;
+        }
+    }
+}
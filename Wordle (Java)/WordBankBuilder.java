@@ -0,0 +1,271 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashSet;
+
+/**
+ * Fills a {@code WordBank} file in the background until it holds a target
+ * number of words, then stops.
+ * 
+ * Words are generated through {@code RandomWord} in batches, deduplicated, and
+ * checked with {@code WordCheck}; only words proven valid are committed, and
+ * only if the bank does not hold them yet. Commits go through
+ * {@code WordBank.appendDistinct()}, which locks the file, so several game
+ * processes on one machine can build the same bank at once without corrupting
+ * it or adding a word twice.
+ * 
+ * The batch size adapts as the builder runs. It grows while batches come back
+ * quickly and shrinks when they are slow or fail, and it is never more than the
+ * number of words still needed divided by the share of words that made it into
+ * the bank so far. Batches that fail, or add nothing new, are followed by an
+ * exponential backoff.
+ */
+final public class WordBankBuilder {
+    /** How many words a bank is filled to by default. */
+    final public static int DEFAULT_TARGET_SIZE = 250;
+    /** The bounds of the adaptive batch size. */
+    final public static int MIN_BATCH_SIZE = 5, MAX_BATCH_SIZE = 500;
+    /** Batches taking longer than this shrink the next batch. */
+    final public static long SLOW_BATCH_MILLIS = 5000;
+    /** The longest wait between failed batches. */
+    final public static long MAX_BACKOFF_MILLIS = 60000;
+
+    final private File bank;
+    final private int wordLength;
+    final private int targetSize;
+
+    final private Thread worker;
+    /** Guards the waits between failed batches, so {@code shutdown()} can end them. */
+    final private Object backoffLock = new Object();
+    /** Held for every commit, so {@code shutdown()} can wait for the one in progress. */
+    final private Object commitLock = new Object();
+    private volatile boolean isShutdown = false;
+
+    private volatile int batchSize = 25;
+    private volatile long batches = 0;
+    private volatile long generated = 0;
+    private volatile long committed = 0;
+    private volatile long rejected = 0;
+    private volatile long duplicates = 0;
+    private volatile long failures = 0;
+
+    /**
+     * Creates a builder filling {@code bank} with five-letter words up to
+     * {@code DEFAULT_TARGET_SIZE}. Call {@code start()} to begin.
+     * 
+     * @param bank
+     */
+    public WordBankBuilder(final File bank) {
+        this(bank, 5, DEFAULT_TARGET_SIZE);
+    }
+
+    /**
+     * Creates a builder. Call {@code start()} to begin.
+     * 
+     * @param bank
+     * @param wordLength (1 - {@code WordBank.MAX_WORD_LENGTH})
+     * @param targetSize (> 0) The number of words to stop at
+     */
+    public WordBankBuilder(final File bank, final int wordLength, final int targetSize) {
+        if (wordLength < 1 || wordLength > WordBank.MAX_WORD_LENGTH || targetSize < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid builder configuration: word length %d, target size %d", wordLength,
+                            targetSize));
+        }
+        this.bank = bank;
+        this.wordLength = wordLength;
+        this.targetSize = targetSize;
+
+        // A daemon, so an unfinished bank never keeps the game from exiting
+        worker = new Thread(this::build, "WordBankBuilder");
+        worker.setDaemon(true);
+    }
+
+    /** Begins filling the bank in the background. */
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Stops the builder after the batch in progress, waiting up to
+     * {@code timeoutMillis} for it to finish. The thread is never interrupted.
+     * However short the timeout, a commit in progress always completes before
+     * this returns, and none starts afterwards, so the JVM can exit right away
+     * without leaving a half-written bank behind; a batch still being generated
+     * or checked is dropped.
+     * 
+     * @param timeoutMillis (>= 0) How long to wait; {@code 0} waits forever
+     * @return {@code true} if the builder has stopped.
+     */
+    public boolean shutdown(final long timeoutMillis) {
+        isShutdown = true;
+        synchronized (backoffLock) {
+            backoffLock.notifyAll();
+        }
+        try {
+            worker.join(timeoutMillis);
+        } catch (final InterruptedException interrupt) {
+            Thread.currentThread().interrupt();
+        }
+        // Waiting out the commit in progress, if any; 'isShutdown' keeps the worker from
+        // starting another one once the lock is free
+        synchronized (commitLock) {
+            return !worker.isAlive();
+        }
+    }
+
+    /** Generates, checks and commits batches until the bank is full. */
+    private void build() {
+        long backoffMillis = 1000;
+        int size;
+        while (!isShutdown && (size = WordBank.sizeOf(bank)) < targetSize) {
+            final long startTime = System.nanoTime();
+            final int committedNow;
+            try {
+                committedNow = buildBatch(targetSize - size);
+            } catch (final IOException unwritable) {
+                // The bank itself is broken, so there is no point in carrying on
+                unwritable.printStackTrace();
+                return;
+            }
+            final long elapsedMillis = (System.nanoTime() - startTime) / 1000000;
+
+            if (committedNow <= 0) {
+                // Either generation failed or nothing new was valid (say, the dictionary
+                // is unreachable); waiting before trying again either way
+                if (committedNow < 0) {
+                    failures++;
+                    batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+                }
+                pause(backoffMillis);
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+                continue;
+            }
+            backoffMillis = 1000;
+            batches++;
+
+            if (elapsedMillis > SLOW_BATCH_MILLIS) {
+                batchSize = Math.max(MIN_BATCH_SIZE, batchSize / 2);
+            } else {
+                batchSize = Math.min(MAX_BATCH_SIZE, batchSize * 2);
+            }
+        }
+    }
+
+    /**
+     * Generates, checks and commits a single batch.
+     * 
+     * @param needed How many words the bank is short of its target
+     * @return The number of words committed, or {@code -1} if no words could be
+     *         generated.
+     * @throws IOException If the bank could not be written
+     */
+    private int buildBatch(final int needed) throws IOException {
+        // Asking for only as many words as are likely to make it into the bank
+        final double acceptance = generated == 0 ? 1 : Math.max(0.05, (double) committed / generated);
+        final int size = (int) Math.max(MIN_BATCH_SIZE, Math.min(batchSize, Math.ceil(needed / acceptance)));
+
+        final String[] words = RandomWord.generateWordsInArray(size, wordLength);
+        if (words == null) {
+            return -1;
+        }
+        generated += words.length;
+
+        // Dropping repeats before checking, so no word is looked up twice
+        final LinkedHashSet<String> distinct = new LinkedHashSet<String>();
+        for (final String word : words) {
+            if (word != null) {
+                distinct.add(word.toLowerCase());
+            }
+        }
+        final String[] candidates = distinct.toArray(new String[distinct.size()]);
+
+        // Only words proven valid make it into the bank, which lets
+        // Wordle.generateWordle() pick from it without checking
+        final WordCheck.Verdict[] verdicts = WordCheck.checkWords(candidates);
+        int valid = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (verdicts[i] == WordCheck.Verdict.VALID) {
+                valid++;
+            } else {
+                candidates[i] = null; // WordBank skips null entries
+            }
+        }
+        rejected += candidates.length - valid;
+
+        final int appended;
+        synchronized (commitLock) {
+            if (isShutdown) { // shutdown() may have stopped waiting for the worker already
+                return 0;
+            }
+            appended = WordBank.appendDistinct(bank, wordLength, candidates, targetSize);
+        }
+        duplicates += words.length - candidates.length + valid - appended;
+        committed += appended;
+        return appended;
+    }
+
+    /** Waits for {@code millis}, or until {@code shutdown()} is called. */
+    private void pause(final long millis) {
+        synchronized (backoffLock) {
+            try {
+                if (!isShutdown) {
+                    backoffLock.wait(millis);
+                }
+            } catch (final InterruptedException interrupt) {
+                isShutdown = true;
+            }
+        }
+    }
+
+    /** @return Whether the builder is still running. */
+    public boolean isRunning() {
+        return worker.isAlive();
+    }
+
+    /** @return The size the next batch will be. */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getTargetSize() {
+        return targetSize;
+    }
+
+    /** @return How many batches have been committed. */
+    public long getBatches() {
+        return batches;
+    }
+
+    /** @return How many words have been generated. */
+    public long getGenerated() {
+        return generated;
+    }
+
+    /** @return How many words have been added to the bank. */
+    public long getCommitted() {
+        return committed;
+    }
+
+    /** @return How many words failed validation (or could not be checked). */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /** @return How many words were skipped as repeats, or for being over the target. */
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /** @return How many batches could not be generated. */
+    public long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "WordBankBuilder[bank=%s, size=%d/%d, batchSize=%d, batches=%d, generated=%d, committed=%d, rejected=%d, duplicates=%d, failures=%d]",
+                bank, WordBank.sizeOf(bank), targetSize, batchSize, batches, generated, committed, rejected,
+                duplicates, failures);
+    }
+}
@@ -1,17 +1,200 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileWriter;
-import java.net.URI;
-import java.net.URLConnection;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
-import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 final public class WordCheck {
-    final protected static String dictionaryURL = "https://api.dictionaryapi.dev/api/v2/entries/en/";
+    /**
+     * The word list used to build the default {@code LocalDictionary}, if it
+     * exists. One word per line.
+     */
+    final public static String defaultDictionaryFileName = "dictionary.txt";
+
+    /**
+     * The Bloom filter loaded into the default word filter, if it exists. Built by
+     * {@code BloomFilter.main()} from {@code defaultDictionaryFileName}, and
+     * rebuilt whenever that word list changes.
+     */
+    final public static String defaultWordFilterFileName = "dictionary.bloom";
+
+    /**
+     * How many lookups {@code checkWords()} keeps in flight at once when no limit
+     * is given.
+     */
+    final public static int DEFAULT_BATCH_CONCURRENCY = 16;
+
+    /**
+     * How many lines {@code removeNonEnglishInFile()} reads and checks at a time.
+     */
+    final public static int STREAM_CHUNK_SIZE = 256;
+
+    /** The outcome of checking a single word. */
+    public static enum Verdict {
+        /** The word exists. */
+        VALID,
+        /** The word does not exist. */
+        INVALID,
+        /** The dictionary could not be consulted, so the word may or may not exist. */
+        ERROR
+    }
+
+    /** Answers every lookup made by {@code checkWord()}. */
+    private static volatile Dictionary dictionary = createDefaultDictionary();
+
+    /**
+     * Remembers earlier verdicts so repeated lookups skip the dictionary; may be
+     * {@code null} to disable caching.
+     */
+    private static volatile VerdictCache verdictCache = new VerdictCache();
+
+    /**
+     * Rejects strings that are definitely not words before any lookup, as long as
+     * the dictionary is self-contained; may be {@code null} to send every string
+     * on to the cache and dictionary.
+     */
+    private static volatile BloomFilter wordFilter = createDefaultWordFilter();
+
+    /** Times every word check, however it is answered. */
+    final private static Metric checkWordMetric = Metrics.get("checkWord");
+
+    /**
+     * Coalesces concurrent lookups of the same word, so a word asked about by
+     * several threads at once is only sent to the dictionary once.
+     */
+    final private static SingleFlight<String, Boolean> lookups = new SingleFlight<String, Boolean>();
+
+    /**
+     * Builds the dictionary used when none has been set through
+     * {@code setDictionary()}.
+     * If {@code defaultDictionaryFileName} exists, lookups are answered from it
+     * and only words missing from it are sent to the online dictionary.
+     * Otherwise every lookup goes to the online dictionary.
+     * 
+     * @return A {@code Dictionary}; never {@code null}
+     */
+    final public static Dictionary createDefaultDictionary() {
+        final File wordList = new File(defaultDictionaryFileName);
+        if (wordList.isFile()) {
+            try {
+                return new LocalDictionary(wordList, new RemoteDictionary());
+            } catch (final IOException unreadable) {
+                System.err.printf("Could not load %s; falling back to the online dictionary\n Trace: ",
+                        defaultDictionaryFileName);
+                unreadable.printStackTrace();
+            }
+        }
+        return new RemoteDictionary();
+    }
+
+    /**
+     * Loads the word filter used when none has been set through
+     * {@code setWordFilter()} from {@code defaultWordFilterFileName}, if it
+     * exists. A filter that no longer matches {@code defaultDictionaryFileName}
+     * is rebuilt from it first, and one whose word list is gone is not used at
+     * all, since it could reject words the dictionary now knows.
+     * 
+     * @return A {@code BloomFilter}, or {@code null} if there is no usable file
+     */
+    final public static BloomFilter createDefaultWordFilter() {
+        final File filterFile = new File(defaultWordFilterFileName);
+        final File wordList = new File(defaultDictionaryFileName);
+        if (filterFile.isFile() && wordList.isFile()) {
+            try {
+                return BloomFilter.openOrBuild(filterFile, wordList, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+            } catch (final IOException unreadable) {
+                System.err.printf("Could not load %s; checking words without a filter\n Trace: ",
+                        defaultWordFilterFileName);
+                unreadable.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Replaces the filter that rejects non-words before any lookup. While the
+     * dictionary is self-contained, words the filter was not built from are always
+     * {@code Verdict.INVALID}, so it should hold every word of the dictionary's
+     * word list. Any other dictionary is consulted regardless of the filter, so a
+     * fallback still gets to answer words missing from the list.
+     * 
+     * @param newFilter The new filter, or {@code null} to disable filtering
+     */
+    final public static void setWordFilter(final BloomFilter newFilter) {
+        wordFilter = newFilter;
+    }
+
+    /**
+     * @return The filter that rejects non-words before any lookup, or
+     *         {@code null} if filtering is disabled.
+     */
+    final public static BloomFilter getWordFilter() {
+        return wordFilter;
+    }
+
+    /**
+     * Replaces the {@code Dictionary} that {@code checkWord()} consults.
+     * For instance, a {@code LocalDictionary} without a fallback makes every
+     * lookup work offline.
+     * The word filter is cleared, since it was built for the previous dictionary;
+     * set one built from the new dictionary's word list afterwards to keep
+     * filtering.
+     * 
+     * @param newDictionary (non-null)
+     */
+    final public static void setDictionary(final Dictionary newDictionary) {
+        if (newDictionary == null) {
+            throw new IllegalArgumentException("dictionary cannot be null");
+        }
+        wordFilter = null;
+        dictionary = newDictionary;
+    }
+
+    /**
+     * @return The {@code Dictionary} currently consulted by {@code checkWord()}.
+     */
+    final public static Dictionary getDictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Replaces the cache of verdicts consulted before the dictionary.
+     * 
+     * @param newCache The new cache, or {@code null} to disable caching
+     */
+    final public static void setVerdictCache(final VerdictCache newCache) {
+        verdictCache = newCache;
+    }
+
+    /**
+     * @return The cache of verdicts consulted before the dictionary, or
+     *         {@code null} if caching is disabled.
+     */
+    final public static VerdictCache getVerdictCache() {
+        return verdictCache;
+    }
+
+    /**
+     * @return The coalescer shared by every dictionary lookup, whose counters show
+     *         how many lookups were saved.
+     */
+    final public static SingleFlight<String, Boolean> getLookups() {
+        return lookups;
+    }
 
     /**
      * This function checks if a given string is a valid English word.
@@ -20,34 +203,164 @@ final public class WordCheck {
      * @return {@code true} if the passed word exists, otherwise {@code false}.
      */
     public static boolean checkWord(final String word) {
-        try {
-            // Ensuring the given String contains only alphabetical characters
-            if (word.length() > 1 && word.matches("[a-zA-Z]+")) {
-                final URLConnection dictionary = new URI(dictionaryURL + word).toURL()
-                        .openConnection();
-                dictionary.setReadTimeout(10000);
-
-                // If the passed String is a true English word, return true
-                // 'dictionary' will have no InputStream if the word is invalid
-                dictionary.getInputStream();
-                return true;
-            }
-        } catch (final FileNotFoundException e) {
+        return verify(word) == Verdict.VALID;
+    }
+
+    /**
+     * Like {@code checkWord()}, but tells apart strings that are not words from
+     * strings that could not be checked at all.
+     * 
+     * @param word
+     * @return {@code Verdict.VALID} if the passed word exists,
+     *         {@code Verdict.INVALID} if it does not, or {@code Verdict.ERROR} if
+     *         the dictionary could not be consulted.
+     */
+    public static Verdict verify(final String word) {
+        // verifyAsync() never fails, and answers right away for invalid or cached words
+        return verifyAsync(word).join();
+    }
+
+    /**
+     * Like {@code checkWord()}, but without blocking the calling thread.
+     * 
+     * @param word
+     * @return A future completed with {@code true} if the passed word exists,
+     *         otherwise {@code false}.
+     */
+    public static CompletableFuture<Boolean> checkWordAsync(final String word) {
+        return verifyAsync(word).thenApply(verdict -> verdict == Verdict.VALID);
+    }
+
+    /**
+     * Like {@code verify()}, but without blocking the calling thread. Cached
+     * verdicts complete right away; anything else is sent to the dictionary
+     * asynchronously.
+     * 
+     * @param word
+     * @return A future completed with the word's {@code Verdict}; it never
+     *         completes exceptionally, since failures become
+     *         {@code Verdict.ERROR}.
+     */
+    public static CompletableFuture<Verdict> verifyAsync(final String word) {
+        final long start = checkWordMetric.start();
+        // Ensuring the given String contains only alphabetical characters
+        if (word == null || word.length() < 2 || !isAlphabetical(word)) {
+            checkWordMetric.record(start);
+            return CompletableFuture.completedFuture(Verdict.INVALID);
+        }
+        final String key = word.toLowerCase();
+
+        // Strings the filter has never seen are definitely not words, so they never
+        // reach the cache or the dictionary. A dictionary with somewhere else to look
+        // may still know them, though
+        final Dictionary current = dictionary;
+        final BloomFilter filter = wordFilter;
+        if (filter != null && current.isSelfContained() && !filter.mightContain(key)) {
+            checkWordMetric.record(start);
+            return CompletableFuture.completedFuture(Verdict.INVALID);
+        }
+
+        // Answering from earlier verdicts whenever possible
+        final VerdictCache cache = verdictCache;
+        if (cache != null) {
+            final Boolean cached = cache.get(key);
+            if (cached != null) {
+                checkWordMetric.record(start);
+                return CompletableFuture.completedFuture(cached ? Verdict.VALID : Verdict.INVALID);
+            }
+        }
+
+        // Concurrent lookups of the same word share a single dictionary request
+        return lookups.execute(key, () -> current.containsAsync(key)).handle((isWord, failure) -> {
+            if (failure != null) {
+                final Throwable cause = failure instanceof CompletionException ? failure.getCause() : failure;
+                System.err.printf("Exception message: %s\n Passed data: %s\n Trace: ", cause.getMessage(), word);
+                cause.printStackTrace();
+                checkWordMetric.recordError(start, cause);
+                return Verdict.ERROR;
+            }
+            // Only actual verdicts are cached; errors are worth retrying later
+            if (cache != null) {
+                cache.put(key, isWord);
+            }
+            checkWordMetric.record(start);
+            return isWord ? Verdict.VALID : Verdict.INVALID;
+        });
+    }
+
+    /**
+     * Checks every word in {@code words} at once, spreading the lookups across up
+     * to {@code maxConcurrency} virtual threads. With a remote dictionary, the
+     * whole batch takes roughly one round trip per {@code maxConcurrency} words.
+     * 
+     * @param words
+     * @param maxConcurrency (> 0) The most lookups allowed in flight at once
+     * @return An array where index {@code i} holds the {@code Verdict} for
+     *         {@code words[i]}.
+     */
+    public static Verdict[] checkWords(final String[] words, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        final Verdict[] verdicts = new Verdict[words.length];
+
+        // Each worker claims the next unchecked index until none are left, so at most
+        // 'maxConcurrency' lookups are ever in flight
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final int workers = Math.min(maxConcurrency, words.length);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(() -> {
+                    for (int index = nextIndex.getAndIncrement(); index < words.length; index = nextIndex
+                            .getAndIncrement()) {
+                        verdicts[index] = verify(words[index]);
+                    }
+                });
+            }
+        } // Closing 'executor' waits for every worker to finish
+        return verdicts;
+    }
+
+    /**
+     * Checks every word in {@code words} at once using
+     * {@code DEFAULT_BATCH_CONCURRENCY} concurrent lookups.
+     * 
+     * @param words
+     * @return An array where index {@code i} holds the {@code Verdict} for
+     *         {@code words[i]}.
+     */
+    public static Verdict[] checkWords(final String[] words) {
+        return checkWords(words, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    /**
+     * A cheaper stand-in for {@code text.matches("[a-zA-Z]+")}, since
+     * {@code checkWord()} is called far too often to compile a regex every time.
+     * 
+     * @param text
+     * @return {@code true} if {@code text} is non-empty and contains only the
+     *         letters a-z (in either case), otherwise {@code false}.
+     */
+    final static boolean isAlphabetical(final String text) {
+        if (text.isEmpty()) {
             return false;
         }
-        // For anything other than FileNotFoundException
-        catch (final Exception other) {
-            System.err.printf("Exception message: %s\n Passed data: %s\n Trace: ", other.getMessage(), word);
-            other.printStackTrace();
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) {
+                return false;
+            }
         }
-        return false;
+        return true;
     }
 
     /**
      * Removes any lines in 'file' that are not valid English words.
-     * Will iterate through the entire passed 'file' line by line.
-     * This function overwrites the contents of 'file' entirely, setting it blank
-     * before later writing the filtered version of words separated by lines
+     * Will iterate through the entire passed 'file' line by line, checking the
+     * lines concurrently through {@code checkWords()}. Lines that could not be
+     * checked are kept.
+     * The filtered lines are written to a temporary file which then replaces
+     * 'file', so 'file' is never left half-written.
      * 
      * @param file
      * @return An array of the removed {@code String}s from 'file'.
@@ -56,53 +369,112 @@ final public class WordCheck {
         // Used for the return value; later converted to generic array
         final ArrayList<String> removedStrings = new ArrayList<String>();
 
+        removeNonEnglishInFile(file, removedStrings::add);
+
+        // Converting 'removedStrings' to a generic String array type for the return
+        return removedStrings.toArray(new String[removedStrings.size()]);
+    }
+
+    /**
+     * Removes any lines in 'file' that are not valid English words without ever
+     * holding more than {@code STREAM_CHUNK_SIZE} lines in memory.
+     * Lines are read, checked (concurrently, through {@code checkWords()}), and
+     * written to a temporary file alongside 'file' one chunk at a time. Once every
+     * line has been handled, the temporary file atomically replaces 'file'. If
+     * anything goes wrong beforehand, 'file' is left untouched.
+     * Lines that could not be checked are kept.
+     * 
+     * @param file
+     * @param removedSink Receives each removed {@code String} as soon as it is
+     *                    found, in file order
+     * @return The number of removed lines, or {@code -1} if 'file' could not be
+     *         filtered.
+     */
+    public static int removeNonEnglishInFile(final File file, final Consumer<String> removedSink) {
+        if (!file.isFile()) { // In case an invalid file was given
+            System.err.printf("%s\nPassed file was not found\nThis is likely due to an improper file name",
+                    file.getPath());
+            return -1;
+        }
+
+        final Path original = file.toPath().toAbsolutePath();
+        Path filtered = null;
+        int removedCount = 0;
         try {
-            // This marks the input segment of the function
-            final Scanner reader = new Scanner(file);
-
-            // Used later to output filtered content back into the 'file'
-            final ArrayList<String> buffer = new ArrayList<String>();
-
-            String currentLineContents = "";
-            while (reader.hasNextLine()) {
-                currentLineContents = reader.nextLine().trim();
-                // Checking if the current line's String is a valid English word, and adding it
-                // to 'buffer' if so
-                if (checkWord(currentLineContents)) {
-                    buffer.add(currentLineContents);
-                } else { // Otherwise, add the String to 'removedStrings'
-                    removedStrings.add(currentLineContents);
-                }
+            // Created in the same directory as 'file' so that the final move is a rename
+            filtered = Files.createTempFile(original.getParent(), file.getName(), ".tmp");
+
+            try (BufferedReader reader = Files.newBufferedReader(original);
+                    BufferedWriter writer = Files.newBufferedWriter(filtered)) {
+                final String[] chunk = new String[STREAM_CHUNK_SIZE];
+                int chunkLength;
+                do {
+                    // Filling 'chunk' with as many lines as are left, up to its size
+                    String line;
+                    for (chunkLength = 0; chunkLength < chunk.length
+                            && (line = reader.readLine()) != null; chunkLength++) {
+                        chunk[chunkLength] = line.trim();
+                    }
+
+                    final Verdict[] verdicts = checkWords(
+                            chunkLength == chunk.length ? chunk : Arrays.copyOf(chunk, chunkLength));
+                    for (int i = 0; i < chunkLength; i++) {
+                        if (verdicts[i] != Verdict.INVALID) {
+                            writer.write(chunk[i]);
+                            writer.write('\n'); // Appending a new line to each word entry
+                        } else {
+                            removedSink.accept(chunk[i]);
+                            removedCount++;
+                        }
+                    }
+                } while (chunkLength == chunk.length);
             }
-            reader.close();
 
-            // This marks the output segment of the function
-            final FileWriter filteredOutput = new FileWriter(file, false);
-            for (final String word : buffer) {
-                filteredOutput.write(word + '\n'); // Appending a new line to each word entry
+            // Temporary files are only readable by their owner, which the word list must
+            // not become by being replaced
+            if (Files.getFileStore(original).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(filtered, Files.getPosixFilePermissions(original));
             }
-            filteredOutput.close();
-
-        } catch (final FileNotFoundException invalidFileName) { // In case an invalid file was given
-            System.err.printf("%s\nPassed file was not found\nThis is likely due to an improper file name",
-                    invalidFileName.getMessage());
-        } catch (final Exception other) { // Catches anything else; if this runs, something catastrophic probably
-                                          // happened
+            try {
+                Files.move(filtered, original, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException notAtomic) {
+                // Some file systems cannot rename atomically; a plain replace is the next best
+                // thing
+                Files.move(filtered, original, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return removedCount;
+        } catch (final Exception other) { // Catches anything else; 'file' is left as it was
             other.printStackTrace();
+            if (filtered != null) {
+                try {
+                    Files.deleteIfExists(filtered);
+                } catch (final IOException ignored) {
+                }
+            }
         }
-        // Converting 'removedStrings' to a generic String array type for the return
-        return removedStrings.toArray(new String[removedStrings.size()]);
+        return -1;
     }
 
+    /**
+     * Removes any {@code String}s in {@code words} that are not valid English
+     * words. Every word is checked concurrently through {@code checkWords()}.
+     * Words that could not be checked (such as during a network failure) are kept
+     * rather than being treated as invalid.
+     * 
+     * @param words
+     * @return A new array of the {@code String}s that were not removed, in their
+     *         original order.
+     */
     public static String[] removeNonEnglishInArray(final String[] words) {
         // Container for the valid Strings
         final ArrayList<String> validWords = new ArrayList<String>();
 
-        // Reading the Strings within 'words'
-        for (final String word : words) {
-            // If the String is a valid English word, add it to 'validWords'
-            if (checkWord(word)) {
-                validWords.add(word);
+        final Verdict[] verdicts = checkWords(words);
+        for (int i = 0; i < words.length; i++) {
+            // If the String was not proven invalid, add it to 'validWords'
+            if (verdicts[i] != Verdict.INVALID) {
+                validWords.add(words[i]);
             }
         }
         // Converting 'validWords' to a generic String array type for the return
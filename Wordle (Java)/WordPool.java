@@ -0,0 +1,211 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of ready-to-use words, kept full in the background.
+ * Taking a word out of the pool never waits on the word source, so callers such
+ * as {@code Wordle.restart()} get a word in microseconds. Whenever the pool runs
+ * low, background threads generate more words until it is full again.
+ */
+final public class WordPool {
+    /** How many words the pool holds by default. */
+    final public static int DEFAULT_DEPTH = 16;
+    /** By default, refilling starts once the pool holds this many words or fewer. */
+    final public static int DEFAULT_REFILL_THRESHOLD = 4;
+    /** How many threads refill the pool at once by default. */
+    final public static int DEFAULT_REFILL_CONCURRENCY = 2;
+
+    /** Produces the words held by the pool; returns {@code null} on failure. */
+    final private Supplier<String> generator;
+    /** The words ready to be handed out. */
+    final private ArrayBlockingQueue<String> words;
+    final private int depth;
+    final private int refillThreshold;
+    final private int refillConcurrency;
+
+    /** Runs the refills, on daemon threads so the pool never keeps the JVM alive. */
+    final private ExecutorService refillers;
+    /** How many refills are running or queued right now. */
+    final private AtomicInteger activeRefills = new AtomicInteger();
+
+    final private AtomicLong served = new AtomicLong();
+    final private AtomicLong misses = new AtomicLong();
+    final private AtomicLong generated = new AtomicLong();
+    final private AtomicLong failures = new AtomicLong();
+
+    private volatile boolean isShutdown = false;
+
+    /**
+     * Creates a pool using {@code DEFAULT_DEPTH}, {@code DEFAULT_REFILL_THRESHOLD}
+     * and {@code DEFAULT_REFILL_CONCURRENCY}. Call {@code start()} to begin
+     * filling it.
+     * 
+     * @param generator Produces a single word per call, or {@code null} on failure
+     */
+    public WordPool(final Supplier<String> generator) {
+        this(generator, DEFAULT_DEPTH, DEFAULT_REFILL_THRESHOLD, DEFAULT_REFILL_CONCURRENCY);
+    }
+
+    /**
+     * Creates a pool. Call {@code start()} to begin filling it.
+     * 
+     * @param generator         Produces a single word per call, or {@code null}
+     *                          on failure
+     * @param depth             (> 0) The most words the pool holds
+     * @param refillThreshold   (0 - {@code depth - 1}) Refilling starts once the
+     *                          pool holds this many words or fewer
+     * @param refillConcurrency (> 0) How many threads may refill the pool at once
+     */
+    public WordPool(final Supplier<String> generator, final int depth, final int refillThreshold,
+            final int refillConcurrency) {
+        if (depth < 1 || refillThreshold < 0 || refillThreshold >= depth || refillConcurrency < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid pool configuration: depth %d, refill threshold %d, refill concurrency %d",
+                    depth, refillThreshold, refillConcurrency));
+        }
+        this.generator = generator;
+        this.depth = depth;
+        this.refillThreshold = refillThreshold;
+        this.refillConcurrency = refillConcurrency;
+        words = new ArrayBlockingQueue<String>(depth);
+
+        refillers = Executors.newFixedThreadPool(refillConcurrency, task -> {
+            final Thread refiller = new Thread(task, "WordPool-refill");
+            refiller.setDaemon(true);
+            return refiller;
+        });
+    }
+
+    /** Begins filling the pool in the background using every refill thread. */
+    public void start() {
+        for (int i = 0; i < refillConcurrency; i++) {
+            scheduleRefill();
+        }
+    }
+
+    /**
+     * Takes a word out of the pool without waiting, starting a refill in the
+     * background if the pool is running low.
+     * 
+     * @return A word, or {@code null} if the pool is empty.
+     */
+    public String poll() {
+        final String word = words.poll();
+        if (word != null) {
+            served.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+
+        if (words.size() <= refillThreshold) {
+            scheduleRefill();
+        }
+        return word;
+    }
+
+    /** Stops refilling the pool. Words already in it can still be taken. */
+    public void shutdown() {
+        isShutdown = true;
+        refillers.shutdownNow();
+    }
+
+    /** @return How many words are ready to be taken right now. */
+    public int size() {
+        return words.size();
+    }
+
+    /** @return The most words the pool holds. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /** @return The pool size at or below which refilling starts. */
+    public int getRefillThreshold() {
+        return refillThreshold;
+    }
+
+    /** @return How many threads may refill the pool at once. */
+    public int getRefillConcurrency() {
+        return refillConcurrency;
+    }
+
+    /** @return How many refills are running or queued right now. */
+    public int getActiveRefills() {
+        return activeRefills.get();
+    }
+
+    /** @return How many words {@code poll()} has handed out. */
+    public long getServed() {
+        return served.get();
+    }
+
+    /** @return How many times {@code poll()} found the pool empty. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** @return How many words the generator has produced for the pool. */
+    public long getGenerated() {
+        return generated.get();
+    }
+
+    /** @return How many times the generator failed to produce a word. */
+    public long getFailures() {
+        return failures.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "WordPool[size=%d/%d, threshold=%d, activeRefills=%d/%d, served=%d, misses=%d, generated=%d, failures=%d]",
+                size(), depth, refillThreshold, getActiveRefills(), refillConcurrency, getServed(), getMisses(),
+                getGenerated(), getFailures());
+    }
+
+    /** Queues a refill unless {@code refillConcurrency} refills are already going. */
+    private void scheduleRefill() {
+        if (isShutdown) {
+            return;
+        }
+        int active;
+        do {
+            active = activeRefills.get();
+            if (active >= refillConcurrency) {
+                return;
+            }
+        } while (!activeRefills.compareAndSet(active, active + 1));
+
+        try {
+            refillers.execute(this::refill);
+        } catch (final RuntimeException rejected) { // Shut down in the meantime
+            activeRefills.decrementAndGet();
+        }
+    }
+
+    /** Generates words until the pool is full or the generator fails. */
+    private void refill() {
+        try {
+            while (!isShutdown && words.remainingCapacity() > 0) {
+                final String word = generator.get();
+                if (word == null) {
+                    // Giving up for now; the next poll() will try again
+                    failures.incrementAndGet();
+                    return;
+                }
+                generated.incrementAndGet();
+                if (!words.offer(word)) { // Another refill filled the last slot first
+                    return;
+                }
+            }
+        } catch (final RuntimeException other) {
+            failures.incrementAndGet();
+            other.printStackTrace();
+        } finally {
+            activeRefills.decrementAndGet();
+        }
+    }
+}
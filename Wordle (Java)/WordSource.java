@@ -0,0 +1,65 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A supplier of random words.
+ * {@code RandomWord} generates every word through a {@code WordSource}, so
+ * swapping the implementation changes where words come from (a local word list,
+ * the online word API, etc.).
+ */
+public interface WordSource {
+    /**
+     * Generates {@code wordAmount} random words that are each {@code wordLength}
+     * characters long.
+     * 
+     * @param wordAmount (> 0)
+     * @param wordLength (> 0)
+     * @return An array of the words, which may be shorter than
+     *         {@code wordAmount} if the source ran short.
+     * @throws IOException If the source could not be consulted (such as a network
+     *                     failure) or has no words of {@code wordLength} length
+     */
+    String[] generate(int wordAmount, int wordLength) throws IOException;
+
+    /**
+     * Generates {@code wordAmount} random words that are each {@code wordLength}
+     * characters long, handing each one to {@code sink} as UTF-8 bytes.
+     * Sources that already hold their words as bytes override this to skip
+     * creating a {@code String} per word.
+     * 
+     * @param wordAmount (> 0)
+     * @param wordLength (> 0)
+     * @param sink       Receives each word
+     * @return The number of words handed to {@code sink}.
+     * @throws IOException If the source could not be consulted or has no words of
+     *                     {@code wordLength} length
+     */
+    default int generate(final int wordAmount, final int wordLength, final WordArrayParser.WordSink sink)
+            throws IOException {
+        final String[] words = generate(wordAmount, wordLength);
+        for (final String word : words) {
+            final byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+            sink.word(bytes, 0, bytes.length);
+        }
+        return words.length;
+    }
+
+    /**
+     * Like {@code generate()}, but without blocking the calling thread.
+     * Sources that generate from memory simply answer right away; remote sources
+     * override this to send their request asynchronously.
+     * 
+     * @param wordAmount (> 0)
+     * @param wordLength (> 0)
+     * @return A future completed with the words, or completed exceptionally if the
+     *         source could not be consulted.
+     */
+    default CompletableFuture<String[]> generateAsync(final int wordAmount, final int wordLength) {
+        try {
+            return CompletableFuture.completedFuture(generate(wordAmount, wordLength));
+        } catch (final IOException failure) {
+            return CompletableFuture.failedFuture(failure);
+        }
+    }
+}
@@ -1,114 +1,247 @@
 import java.awt.Color;
-import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.Font;
-import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.text.ParseException;
-import java.util.Random;
-import java.util.Scanner;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
-import javax.swing.JTextField;
 import javax.swing.JToggleButton;
-import javax.swing.text.AbstractDocument;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.BadLocationException;
-import javax.swing.text.DocumentFilter;
-import javax.swing.text.MaskFormatter;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 
-final public class Wordle implements KeyListener, ActionListener {
+final public class Wordle implements ActionListener {
     // Init function
-    final public static void main(final String[] args) throws ParseException {
-        final caching cacheProcess = new caching();
-        cacheProcess.start();
+    final public static void main(final String[] args) {
+        loadVerdicts();
+
+        // Printing every metric periodically when asked to, such as with
+        // -Dwordle.metrics.dump=30 for every 30 seconds
+        final long dumpSeconds = Long.getLong("wordle.metrics.dump", 0);
+        if (dumpSeconds > 0) {
+            Metrics.startDump(dumpSeconds * 1000, System.out);
+        }
+
+        // Reporting where the window freezes when asked to, such as with
+        // -Dwordle.watchdog=200 for any EDT stall over 200 ms
+        final long stallMillis = Long.getLong("wordle.watchdog", 0);
+        if (stallMillis > 0) {
+            final EdtWatchdog watchdog = new EdtWatchdog(stallMillis, System.err);
+            watchdog.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.print(watchdog.summary())));
+        }
+
+        // Filling the bank of Wordles in the background, stopping cleanly on exit
+        final WordBankBuilder bankBuilder = new WordBankBuilder(new File(cacheFileName));
+        bankBuilder.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> bankBuilder.shutdown(1000)));
 
         final Wordle game = new Wordle();
 
         game.frame.pack();
         game.frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Destroys the window upon the process dying
 
-        game.generatedWord = generateWordle();
+        // Keeping Wordles ready in the background so restarting never waits on one
+        game.wordPool = new WordPool(Wordle::generateWordle);
+        game.wordPool.start();
+
+        game.startNextGame();
 
         // Set visibility last so the player doesn't have the opportunity to screw
         // anything up preemptively
         game.frame.setVisible(true);
+        game.board.requestFocusInWindow(); // Letting the player type right away
+    }
+
+    /**
+     * Loads the verdicts saved in {@code verdictsFileName} into
+     * {@code WordCheck}'s cache and saves them back once the game exits, so
+     * words checked in earlier sessions never need checking again.
+     */
+    final protected static void loadVerdicts() {
+        final VerdictCache cache = WordCheck.getVerdictCache();
+        if (cache == null) {
+            return;
+        }
+        final File verdicts = new File(verdictsFileName);
+        try {
+            cache.load(verdicts);
+        } catch (final IOException unreadable) {
+            unreadable.printStackTrace();
+        }
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                cache.save(verdicts);
+            } catch (final IOException unwritable) {
+                unwritable.printStackTrace();
+            }
+        }));
     }
 
     /**
      * Will return a five letter word to be used as the Wordle.
-     * Will use a cache file if it exists, otherwise will use the
-     * {@code generateWord()} function from class {@code RandomWord}, which takes
-     * time since it is dependant on a HTTP request.
+     * Will pick a word from the cache's word bank if it exists, otherwise will use
+     * the {@code generateWord()} function from class {@code RandomWord}, which
+     * takes time since it is dependant on a HTTP request.
+     * Words in the bank were validated before being added to it, so picking from
+     * the bank is a single read at a random index with no further checks.
+     * Generated words are checked, and at most {@code MAX_GENERATE_ATTEMPTS} are
+     * tried, so this gives up rather than looping forever while offline.
      * 
-     * @return A {@code String} containing a valid five-letter English word
+     * @return A {@code String} containing a valid five-letter English word, or
+     *         {@code null} if none could be found.
      */
     final protected static String generateWordle() {
-        String word = "";
-
-        final File cache = new File("cache");
-        try (Scanner cacheReader = new Scanner(cache)) {
-            // Used to store the necessary line within the 'cache'
-            String[] buffer;
-            // 'cache.length() > 60' exists so we know there are at least ten lines of
-            // possibly valid data
-            if (cache.exists() && cache.length() > 60) {
-                // '5 + lineSeparator()' since each line in the cache should
-                // consist of five characters and the system's default line separator(s)
-                // This is done to calculate the number of words in the cache
-                // Final division by two to reduce the total amount of necessary reading by half
-                buffer = new String[(int) cache.length() / (5 + System.lineSeparator().length()) / 2];
-            } else {
-                throw new FileNotFoundException();
-            }
-            // Determines which half of the file to scan through
-            // A value of 'true' denotes that the first half should be used, so we continue
-            // past this segment as normal
-            // A value of 'false' denotes that the second half should be used, so we discard
-            // the first half of entries in 'cache' in the below loop
-            if (!new Random().nextBoolean()) {
-                for (int i = 0; i < buffer.length; i++) {
-                    cacheReader.nextLine();
+        final long start = generateWordleMetric.start();
+        try {
+            String word = generateWordle(getWordleBank());
+
+            // If the cache does not exist, use the slower generateWord()
+            for (int attempt = 0; word == null && attempt < MAX_GENERATE_ATTEMPTS; attempt++) {
+                final String candidate = RandomWord.generateWord(5);
+                if (candidate != null && WordCheck.checkWord(candidate)) {
+                    word = candidate;
                 }
             }
-
-            // Reading data from 'cache' into 'buffer'
-            for (int i = 0; i < buffer.length; i++) {
-                buffer[i] = cacheReader.nextLine();
+            if (word == null) {
+                generateWordleMetric.recordError(start, "NoWord");
+            } else {
+                generateWordleMetric.record(start);
             }
+            return word;
+        } catch (final RuntimeException failure) {
+            generateWordleMetric.recordError(start, failure);
+            throw failure;
+        }
+    }
 
-            // Accessing a random index of 'buffer' to return as the generated Wordle
-            // Wrapped in a do-while to ensure the word is a valid English word with five
-            // total letters
-            do {
-                word = buffer[new Random().nextInt(buffer.length)];
-            } while (word.length() != 5 || !WordCheck.checkWord(word));
-        } catch (final FileNotFoundException e) { // If the cache does not exist, use the slower generateWord()
-            do {
-                word = RandomWord.generateWord(5);
-            } while (!WordCheck.checkWord(word));
+    /**
+     * Picks a Wordle out of {@code bank}. Every word in {@code bank} is equally
+     * likely to be picked.
+     * 
+     * @param bank A bank of pre-validated five-letter words (nullable)
+     * @return A {@code String} containing a five-letter word, or {@code null} if
+     *         {@code bank} is missing or too small to pick from.
+     */
+    final protected static String generateWordle(final WordBank bank) {
+        // 'bank.size() >= 10' exists so we know there are at least ten words to choose
+        // from
+        if (bank != null && bank.size() >= 10) {
+            return bank.wordAt(ThreadLocalRandom.current().nextInt(bank.size()));
         }
-        System.out.println(word);
-        return word;
+        return null;
     }
 
-    /** THE WORDle */
-    protected String generatedWord;
+    /**
+     * The most recent mapping of {@code matrixFileName}, kept so that hints do
+     * not have to map the file every time.
+     */
+    private static FeedbackMatrix feedbackMatrix;
+
+    /**
+     * Maps the feedback matrix built for {@code words}, rebuilding it if the word
+     * bank has changed since it was built. Hints fall back to scoring every pair
+     * themselves until {@code FeedbackMatrix.main()} has built the matrix once.
+     * 
+     * @param words Every word in the cache's word bank, packed, in order
+     * @return The up-to-date matrix, or {@code null} if there is none.
+     */
+    final protected static synchronized FeedbackMatrix getFeedbackMatrix(final int[] words) {
+        if (feedbackMatrix != null && feedbackMatrix.isBuiltFrom(words, words)) {
+            return feedbackMatrix;
+        }
+        final File file = new File(matrixFileName);
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            feedbackMatrix = FeedbackMatrix.openOrBuild(file, words, words);
+        } catch (final IOException unusable) {
+            unusable.printStackTrace();
+            feedbackMatrix = null;
+        }
+        return feedbackMatrix;
+    }
+
+    /**
+     * The most recent mapping of the cache's word bank, kept so that picking a
+     * Wordle does not have to map the file every time.
+     */
+    private static WordBank wordleBank;
+
+    /**
+     * Maps the cache's word bank, reusing the previous mapping unless the
+     * {@code WordBankBuilder} has added words since.
+     * 
+     * @return The mapped word bank, or {@code null} if there is no usable bank.
+     */
+    final protected static synchronized WordBank getWordleBank() {
+        final File cache = new File(cacheFileName);
+        final long expectedLength = wordleBank == null ? -1
+                : WordBank.HEADER_SIZE + (long) wordleBank.size() * Integer.BYTES;
+
+        if (cache.length() != expectedLength) {
+            try {
+                final WordBank bank = WordBank.open(cache);
+                wordleBank = bank.wordLength() == 5 ? bank : null;
+            } catch (final IOException missing) {
+                wordleBank = null;
+            }
+        }
+        return wordleBank;
+    }
+
+    // Time the parts of the game that run on the Event Dispatch Thread
+    final private static Metric generateWordleMetric = Metrics.get("generateWordle");
+    final private static Metric interpretGuessMetric = Metrics.get("interpretGuess");
+    final private static Metric restartMetric = Metrics.get("restart");
+    /** Times a guess check from submission until its verdict is back on the EDT. */
+    final private static Metric checkGuessMetric = Metrics.get("checkGuess");
+
+    /** How many generated words {@code generateWordle()} tries before giving up. */
+    final static int MAX_GENERATE_ATTEMPTS = 10;
+
+    /** The word bank the {@code WordBankBuilder} fills with potential Wordles. */
+    final static String cacheFileName = "cache.bank";
+
+    /**
+     * Where {@code FeedbackMatrix.main()} keeps the patterns of every word in the
+     * word bank against every other, for hints to look up.
+     */
+    final static String matrixFileName = "cache.matrix";
+
+    /** Where {@code WordCheck}'s verdicts are kept between sessions. */
+    final static String verdictsFileName = "verdicts";
+
+    /** The rules of the game being played, including THE WORDle. */
+    protected GameState state;
+
+    /**
+     * Keeps Wordles ready ahead of time; {@code null} if every Wordle should be
+     * generated on demand.
+     */
+    protected WordPool wordPool;
+
+    /**
+     * The search for the next Wordle while {@code wordPool} is empty, or
+     * {@code null} if there is none. The board takes no input in the meantime.
+     */
+    protected CompletableFuture<String> pendingWordle;
 
     /** Used to group the entire GUI. */
     final protected JPanel panelMain;
 
-    /** Used to group rows of char boxes into a grid. */
-    final protected JPanel charBoxes;
+    /** The tiles the player types their guesses into. */
+    final protected GameBoard board;
 
     /** Contains the game's title, "Wordle". */
     final protected JLabel title;
@@ -119,17 +252,8 @@ final public class Wordle implements KeyListener, ActionListener {
     final protected JButton retryButton;
     /** Background theme toggle button. */
     final protected JToggleButton darkModeToggle;
-
-    /**
-     * Raw JPanel that keeps track of the currently active row of char boxes that
-     * the player has.
-     */
-    protected JPanel activePanelRow;
-    /**
-     * Tracks the player's current attempt; is otherwise used as an index for
-     * functions.
-     */
-    protected int attempt = 0;
+    /** Hint button. */
+    final protected JButton hintButton;
 
     /**
      * This value keeps track of whether the background is in darkmode or light mode
@@ -141,70 +265,34 @@ final public class Wordle implements KeyListener, ActionListener {
     protected Color currentTextScheme = new Color(0, 0, 0); // Black text
 
     /**
-     * Used for easy access to the active char boxes.
-     * This is necessary because {@code panel.getComponent()} returns a type of
-     * {@code Component}, which is a super class of {@code JTextField}
-     * (the charbox) and thus lacks necessary functions and features.
-     */
-    protected JTextField[] activeCharBoxRow;
-
-    /** A list of banned characters for when the player guesses incorrectly. */
-    protected String bannedLetters = "";
-
-    /**
-     * Used to prevent the reusage of a given String twice in a row, thus preventing
-     * unnecessary function calls.
+     * The background check of the player's latest guess, or {@code null} if no
+     * guess is being checked.
      */
-    protected String previousInput = "";
+    protected CompletableFuture<WordCheck.Verdict> pendingGuessCheck;
+    /** The guess being checked by {@code pendingGuessCheck}. */
+    protected String checkingGuess;
 
     /**
-     * A {@code Color} used to notify the player that a char box contains a correct
+     * A {@code Color} used to notify the player that a tile contains a correct
      * letter in the correct position.
      */
     final Color charCorrectPlace = new Color(0, 155, 0); // Green
     /**
-     * A {@code Color} used to notify the player that a char box contains a correct
+     * A {@code Color} used to notify the player that a tile contains a correct
      * letter, but in an incorrect position.
      */
     final Color charInString = new Color(180, 113, 50); // Yellow
     /**
-     * A {@code Color} used to notify the player that a char box contains an
+     * A {@code Color} used to notify the player that a tile contains an
      * incorrect letter.
      */
     final Color charNotFound = new Color(155, 0, 0); // Red
 
-    /**
-     * Formatter used in the generation of {@code JTextField}s that forces
-     * them to only accept a single alphabetical character.
-     */
-    final MaskFormatter charOnlyFormatter = new MaskFormatter("U");
-    /** Layout used in every char box row. */
-    final GridLayout layout = new GridLayout(1, 5);
-    /** The size of each char box row */
-    final Dimension panelSize = new Dimension(240, 40); // Size of each char box row
-
-    /**
-     * Used in the generation of char boxes to make them only take in one
-     * alphabetical character at a time.
-     */
-    final charOnlyFilter filter = new charOnlyFilter();
-    /**
-     * Describes the default size for generated char boxes in
-     * {@code createCharBoxRow()}.
-     */
-    final Dimension charBoxSize = new Dimension(40, 40);
-
-    /**
-     * Describes the default {@code Font} for generated char boxes in
-     * {@code createCharBoxRow()}.
-     */
-    final Font charBoxFont = new Font("Arial", 1, 24);
-
     /** The primary window for the game. */
     protected JFrame frame;
 
     /** Driving constructor. */
-    protected Wordle() throws ParseException {
+    protected Wordle() {
         // Creating and naming the window
         frame = new JFrame("Wordle");
 
@@ -223,15 +311,10 @@ final public class Wordle implements KeyListener, ActionListener {
         messageLabel.setPreferredSize(new Dimension(450, 30));
         messageLabel.setFont(new Font("Arial", 2, 16));
 
-        // Panel to arrange char boxes into a vertical column
-        charBoxes = new JPanel(new GridLayout(6, 1));
-
-        // Creating six rows of char-only input boxes
-        for (int i = 0; i < 6; i++) {
-            createCharBoxRow(5);
-        }
-        // Setting the active panel to the first set of char boxes created
-        resetActiveCharPanel();
+        // The board of tiles, which hands every entered guess to actionPerformed()
+        board = new GameBoard(currentBackgroundScheme, currentTextScheme, charCorrectPlace, charInString,
+                charNotFound);
+        board.addActionListener(this);
 
         // Creating retryButton and dark mode buttons
         final ImageIcon sunIcon = createImageIcon("sun.png"); // Used as an icon for 'darkModeToggle'
@@ -247,79 +330,63 @@ final public class Wordle implements KeyListener, ActionListener {
         darkModeToggle.setPreferredSize(new Dimension(50, 50));
         darkModeToggle.addActionListener(this);
 
+        hintButton = new JButton("?");
+        hintButton.setToolTipText("Hint");
+        hintButton.setFont(new Font("Arial", 1, 20));
+        hintButton.setPreferredSize(new Dimension(50, 50));
+        hintButton.addActionListener(this);
+
         // Throwing everything into the main panel
         panelMain.add(title);
-        panelMain.add(charBoxes);
+        panelMain.add(board);
         panelMain.add(messageLabel);
         panelMain.add(retryButton);
         panelMain.add(darkModeToggle);
+        panelMain.add(hintButton);
 
         // Finalizing
         frame.setContentPane(panelMain);
     }
 
-    // Associated key events below; linked only to the char boxes and nothing else
-    // as of now
-    @Override
-    final public void keyPressed(final KeyEvent key) {
-    }
-
-    /**
-     * Assembles a string from the char boxes upon releasing the enter key
-     * Sends the string to 'interpretGuess' if the string is valid
-     * Otherwise, warns the player appropriately
-     */
-    @Override
-    final public void keyReleased(final KeyEvent key) {
-        if (key.getKeyCode() == KeyEvent.VK_ENTER) {
-            final String inputtedString = readActiveCharPanel().toLowerCase().trim();
-
-            // Tracking the previous inputted String lets us cut back on calling
-            // checkWord(), especially if the player's entry is gibberish
-            if (inputtedString.length() == 5 && !inputtedString.equals(previousInput)) {
-                interpretGuess(inputtedString);
-            } else if (inputtedString.length() != 5) {
-                notifyPlayer("Your guess must contain five letters.");
-            } else {
-                notifyPlayer("Don't reuse the same guess twice in a row.");
-            }
-            previousInput = inputtedString;
-        }
-    }
-
     /**
-     * Allows the player to conveniently replace the character within a given char
-     * box without having to manually delete it.
-     */
-    @Override
-    final public void keyTyped(final KeyEvent key) {
-        if (Character.isAlphabetic(key.getKeyChar())) {
-            final JTextField charBox = (JTextField) key.getSource();
-            // We set the char box's text to null because if we try to directly assign the
-            // associated character concatenated to an empty String, the DocumentFilter
-            // attached to the char box will scream and holler (silently) and prevent the
-            // text from being set.
-
-            // This only works because this function is called before the char box's
-            // 'Document' can update its text, which means that for a very brief moment, the
-            // char box will have no text, thus allowing for the player's input to be
-            // written.
-            charBox.setText(null);
-        }
-    }
-
-    /**
-     * Used for button events - specifically with the retry button and the dark mode
-     * toggle button.
+     * Used for the guesses entered on {@code board} and for button events -
+     * specifically with the retry button, the dark mode toggle button, and the
+     * hint button.
      */
     @Override
     final public void actionPerformed(final ActionEvent event) {
+        if (event.getSource() == board) {
+            enterGuess(event.getActionCommand());
+        }
         if (event.getSource() == retryButton) {
             restart();
         }
         if (event.getSource() == darkModeToggle) {
             colorSchemeChange();
         }
+        if (event.getSource() == hintButton) {
+            requestHint();
+        }
+        // Handing the keyboard back to the board after any button is pressed
+        board.requestFocusInWindow();
+    }
+
+    /**
+     * Sends the guess entered on {@code board} to {@code interpretGuess()} if it
+     * is long enough, otherwise warns the player appropriately.
+     * 
+     * @param guess The letters of the active row, in lowercase
+     */
+    final protected void enterGuess(final String guess) {
+        if (!isPlaying()) {
+            return; // The board only takes input while a game is being played anyway
+        } else if (pendingGuessCheck != null && guess.equals(checkingGuess)) {
+            return; // This exact guess is already being checked
+        } else if (guess.length() == GameState.WORD_LENGTH) {
+            interpretGuess(guess);
+        } else {
+            notifyPlayer("Your guess must contain five letters.");
+        }
     }
 
     /**
@@ -337,216 +404,191 @@ final public class Wordle implements KeyListener, ActionListener {
     }
 
     /**
-     * Assembles a {@code numBoxes} amount of {@code JTextField}s that only
-     * accept a single character and puts them into a {@code JPanel}
-     * {@code charBoxPanel} which is then added as a child instance of
-     * {@code charBoxes}.
-     */
-    final protected void createCharBoxRow(final int numBoxes) throws ParseException {
-        // Creating a JPanel to hold the generated char boxes
-        final JPanel charBoxPanel = new JPanel(layout);
-        charBoxPanel.setPreferredSize(panelSize);
-
-        // Creating the char boxes
-        JTextField newCharBox;
-        for (int i = 0; i < numBoxes; i++) {
-            newCharBox = new JTextField();
-            newCharBox.setFont(charBoxFont);
-            newCharBox.setPreferredSize(charBoxSize);
-            newCharBox.setBackground(currentBackgroundScheme);
-            newCharBox.setHorizontalAlignment(JTextField.CENTER);
-            // Applying the custom DocumentFilter to the char box
-            ((AbstractDocument) newCharBox.getDocument()).setDocumentFilter(filter);
-            newCharBox.setEnabled(false); // resetActiveCharPanel() enables boxes as necessary
-            // Adding the new char box to the row
-            charBoxPanel.add(newCharBox);
+     * Takes a word and interprets it.
+     * Guesses that {@code state} would reject anyway (repeated guesses, banned
+     * letters) and correct guesses are handled right away; everything else is
+     * first checked to be a real word in the background, so this function
+     * returns right away. See {@code checkGuessInBackground()}.
+     */
+    final protected void interpretGuess(final String guess) {
+        final long start = interpretGuessMetric.start();
+        try {
+            // Whatever was being checked before is stale now that there is a new guess
+            cancelGuessCheck();
+
+            final int packedGuess = WordBank.pack(guess);
+            if (state.check(packedGuess) != GameState.ACCEPTABLE) {
+                // Submitting the guess anyway so that 'state' remembers it as the previous
+                // input; it hands back the reason the guess was rejected
+                showGuessResult(state.submitGuess(packedGuess, false));
+            } else if (packedGuess == state.getAnswer()) {
+                // We check if the guess is correct upfront just in case in order to avoid
+                // calling checkWord()
+                showGuessResult(state.submitGuess(packedGuess, true));
+            } else {
+                checkGuessInBackground(guess);
+            }
+            interpretGuessMetric.record(start);
+        } catch (final RuntimeException failure) {
+            interpretGuessMetric.recordError(start, failure);
+            throw failure;
         }
-        // Adds the row of char boxes to the main JPanel 'charBoxes'
-        charBoxes.add(charBoxPanel);
     }
 
     /**
-     * Sets an active row (panel) of char boxes.
-     * If 'activePanelRow' is NOT initialized, then it assigns it a panel of char
-     * boxes.
-     * If 'activePanelRow' is initialized, it disables the previous row and
-     * removes its KeyListeners while assigning the next row of char boxes.
+     * Checks whether {@code guess} is a real word off of the Event Dispatch
+     * Thread, so a slow dictionary never freezes the window. The player is told
+     * the guess is being checked in the meantime, and the verdict is handed to
+     * {@code interpretCheckedGuess()} back on the Event Dispatch Thread.
+     * The check runs through {@code WordCheck.verifyAsync()}, so no thread is
+     * tied up waiting on the dictionary, and a cancelled check costs nothing.
+     * 
+     * @param guess
      */
-    final protected void resetActiveCharPanel() {
-
-        // Removing previous active panel's KeyListeners and disabling them
-        if (activePanelRow != null) {
-            for (final JTextField charBox : activeCharBoxRow) {
-                charBox.removeKeyListener(this);
-                charBox.setEnabled(false);
+    final protected void checkGuessInBackground(final String guess) {
+        notifyPlayer(String.format("Checking \"%s\"...", guess));
+        checkingGuess = guess;
+        final long start = checkGuessMetric.start();
+
+        // Holding a copy, so cancelling it never stops WordCheck from caching the verdict
+        final CompletableFuture<WordCheck.Verdict> check = WordCheck.verifyAsync(guess).copy();
+        pendingGuessCheck = check;
+        check.thenAccept(verdict -> SwingUtilities.invokeLater(() -> {
+            // Ignoring checks that have since been cancelled or replaced
+            if (pendingGuessCheck != check) {
+                checkGuessMetric.recordError(start, "Cancelled");
+                return;
             }
-            activePanelRow = null;
-        }
-
-        // Player has a maximum of six(6) attempts
-        if (attempt < 6) {
-            // Setting 'activePanelRow'
-            activePanelRow = (JPanel) charBoxes.getComponent(attempt);
-
-            // Instantiating 'activeCharBoxRow', adding KeyListeners, and enabling the char
-            // boxes
-            activeCharBoxRow = new JTextField[activePanelRow.getComponentCount()]; // Array length should be 5
-            for (int i = 0; i < activeCharBoxRow.length; i++) {
-                if (activePanelRow.getComponent(i) instanceof JTextField) {
-                    activeCharBoxRow[i] = (JTextField) activePanelRow.getComponent(i);
-                    activeCharBoxRow[i].addKeyListener(this);
-                    activeCharBoxRow[i].setEnabled(true);
-                }
+            pendingGuessCheck = null;
+
+            // The player may have changed the row while the check was running
+            if (!board.getGuess().equals(guess)) {
+                checkGuessMetric.recordError(start, "Stale");
+                notifyPlayer(null);
+            } else if (verdict == WordCheck.Verdict.ERROR) {
+                checkGuessMetric.recordError(start, "Unchecked");
+                notifyPlayer("Your guess could not be checked, so try again.");
+            } else {
+                checkGuessMetric.record(start);
+                interpretCheckedGuess(guess, verdict == WordCheck.Verdict.VALID);
             }
-            activeCharBoxRow[0].requestFocusInWindow(); // Setting the cursor to the first box
-        }
+        }));
+        // A check cancelled before its verdict arrived never reaches the handler above
+        check.whenComplete((verdict, failure) -> {
+            if (failure != null) {
+                checkGuessMetric.recordError(start, failure);
+            }
+        });
     }
 
     /**
-     * Reads and returns all of the char boxes' text in {@code activeCharBoxRow}.
-     * 
-     * @return A String that consists of the characters the player has inputted into
-     *         the current 'activePanelRow'
+     * Cancels the guess check that is in flight, if there is one. Its verdict is
+     * discarded even if it arrives afterwards. The dictionary lookup itself is
+     * left running, since other callers may be sharing it.
      */
-    final protected String readActiveCharPanel() {
-        String word = "";
-
-        // Reading chars from 'activePanelRow' into String 'word'
-        for (final JTextField charBox : activeCharBoxRow) {
-            word += charBox.getText();
+    final protected void cancelGuessCheck() {
+        if (pendingGuessCheck != null) {
+            pendingGuessCheck.cancel(false);
+            pendingGuessCheck = null;
         }
-
-        return word;
     }
 
     /**
-     * Takes a word and interprets it.
-     * This function calls either {@code win()}, or {@code incorrectGuess()}, and
-     * adds wrong characters to {@code bannedLetters} in the case of the latter.
+     * Finishes interpreting an incorrect guess once {@code checkWord()} has
+     * decided whether it is a real word.
+     * 
+     * @param guess
+     * @param isWord The verdict of {@code checkWord()} for {@code guess}
      */
-    final protected void interpretGuess(final String guess) {
-        // We check if the guess is correct upfront just in case in order to avoid
-        // calling checkWord()
-        if (guess.equals(generatedWord)) {
-            // We increment 'attempt' here so that when printing the player's current
-            // attempt isn't off by one, and because they still had to attempt, right?
-            attempt++;
-            win();
-        } else if (WordCheck.checkWord(guess)) {
-            // Making sure banned letters aren't repeated and notifying the user as
-            // necessary
-            // Stops after finding a single banned letter, hence 'index == -1'
-            int index = -1;
-            for (int i = 0; i < bannedLetters.length() && index == -1; i++) {
-                index = guess.indexOf(bannedLetters.charAt(i));
-            }
+    final protected void interpretCheckedGuess(final String guess, final boolean isWord) {
+        showGuessResult(state.submitGuess(WordBank.pack(guess), isWord));
+    }
 
-            // Continues if a banned letter wasn't found
-            if (index == -1) {
-                // We increment 'attempt' here so that when printing the player's current
-                // attempt it's actually correct and not off by one, and because we don't count
-                // guesses that contain banned or already used letters
-                attempt++;
-                incorrectGuess(guess);
-            } else { // If the passed string contains letters stored in 'bannedLetters'
+    /**
+     * Shows the player the outcome of submitting a guess to {@code state}.
+     * This function calls either {@code win()} or {@code incorrectGuess()} for a
+     * scored guess, otherwise it tells the player why their guess was rejected.
+     * 
+     * @param result The return value of {@code state.submitGuess()}
+     */
+    final protected void showGuessResult(final int result) {
+        switch (result) {
+            case GameState.REJECTED_MALFORMED:
+                notifyPlayer("Your guess must contain five letters.");
+                break;
+            case GameState.REJECTED_REPEAT:
+                notifyPlayer("Don't reuse the same guess twice in a row.");
+                break;
+            case GameState.REJECTED_BANNED:
                 notifyPlayer("Your guess contains banned letters.");
-            }
-        } else { // If the passed string is not a valid English word
-            notifyPlayer("Input an actual word this time.");
+                break;
+            case GameState.REJECTED_NOT_A_WORD:
+                notifyPlayer("Input an actual word this time.");
+                break;
+            case GameState.REJECTED_GAME_OVER:
+                break; // Nothing left to tell the player
+            default:
+                notifyPlayer(null);
+                if (state.getStatus() == GameState.WON) {
+                    win();
+                } else {
+                    incorrectGuess(result);
+                }
         }
     }
 
     /**
      * If the guessed word is NOT correct.
-     * Should only be called by {@code interpretGuess()}.
+     * Should only be called by {@code showGuessResult()}.
      * 
-     * @param guess
+     * @param pattern The {@code GuessScorer} pattern the guess scored
      */
-    final protected void incorrectGuess(final String guess) {
-        for (int i = 0; i < guess.length(); i++) {
-            // Preemptively assigning the current char as a String if needed
-            final String currentChar = "" + guess.charAt(i);
-
-            if (guess.charAt(i) == generatedWord.charAt(i)) {
-                activeCharBoxRow[i].setBackground(charCorrectPlace);
-            } else if (generatedWord.contains(currentChar)) {
-                activeCharBoxRow[guess.indexOf(currentChar)].setBackground(charInString);
-            } else {
-                activeCharBoxRow[i].setBackground(charNotFound);
-                bannedLetters += currentChar; // Adding the character to 'bannedLetters'
-            }
-        }
-        // Enabling the next row of char boxes for the player and disabling the previous
-        if (attempt == 6) { // If this was the player's last guess, notify them
-            notifyPlayer(String.format("You failed to guess \"%s\".", generatedWord));
-            resetActiveCharPanel();
-        } else if (attempt != 6) { // Otherwise, just enable the next row of char boxes
-            resetActiveCharPanel();
+    final protected void incorrectGuess(final int pattern) {
+        // Coloring the guess and moving the player on to the next row
+        board.markRow(pattern);
+        if (state.getStatus() == GameState.LOST) { // If this was the player's last guess, notify them
+            notifyPlayer(String.format("You failed to guess \"%s\".", state.getAnswerWord()));
         }
     }
 
     final protected void win() {
-        for (final JTextField charbox : activeCharBoxRow) {
-            charbox.setEnabled(false);
-            charbox.setBackground(charCorrectPlace);
-        }
+        board.markRow(GuessScorer.ALL_GREEN);
+        board.finish();
 
         // Notifying the player of their correct guess
-        if (attempt == 1) { // If the player SOMEHOW guessed correctly with their first attempt
+        if (state.getAttempt() == 1) { // If the player SOMEHOW guessed correctly with their first attempt
             notifyPlayer(String.format("Wow! You managed to guess \"%s\" in a single attempt!",
-                    generatedWord));
+                    state.getAnswerWord()));
         } else { // If the player guesses correct after having made more than one attempt
             notifyPlayer(String.format("Correct! You managed to guess \"%s\" in %d attempts!",
-                    generatedWord, attempt));
+                    state.getAnswerWord(), state.getAttempt()));
         }
     }
 
     /**
-     * Clears all colors and text from the char boxes set by
-     * {@code interpretGuess()}.
+     * Clears all colors and letters from the board set by
+     * {@code interpretGuess()} and starts a game with another Wordle.
      * Will also clear {@code messageLabel}.
      * Does NOT regenerate any other parts of the UI or reset other any elements'
      * color scheme
      */
     final protected void restart() {
-        // Prevents player from dragging performance if they haven't made at least one
-        // guess since calling restart() can be fairly time-consuming
-        if (attempt != 0) {
-            // Resetting modifiable game variables
-            attempt = 0;
-            bannedLetters = "";
-            previousInput = "";
-
-            // Generating another word
-            generatedWord = generateWordle();
-
-            // Getting all of the JPanels in 'charBoxes'
-            // Using a standard for-loop so that type-casting can take place for
-            // 'currentPanel' since if we had used charBoxes.getComponents(), the returned
-            // array would be of type 'Component', which is a superclass of JPanel and lacks
-            // necessary features
-            for (int i = 0; i < charBoxes.getComponentCount(); i++) {
-                final JPanel currentPanel = (JPanel) charBoxes.getComponent(i);
-
-                // Getting and modifying all of the char boxes in 'currentPanel'
-                for (int x = 0; x < currentPanel.getComponentCount(); x++) {
-                    final JTextField currentCharBox = (JTextField) currentPanel.getComponent(x);
-
-                    // We only need to clear boxes that have text within them
-                    if (!currentCharBox.getText().isBlank()) {
-                        currentCharBox.setBackground(currentBackgroundScheme);
-                        currentCharBox.setForeground(currentTextScheme);
-                        currentCharBox.setText(null);
-                        currentCharBox.setEnabled(false); // resetActiveCharPanel() enables as necessary
-                    }
-                }
+        final long start = restartMetric.start();
+        try {
+            if (pendingWordle != null) {
+                notifyPlayer("Still looking for a new Wordle...");
+            } else if (state == null || state.getAttempt() != 0) {
+                // Prevents player from needlessly using up a Wordle if they haven't made
+                // at least one guess; without a game, the last search came up empty
+                cancelGuessCheck();
+                startNextGame();
+            } else { // If the player has NOT made at least one(1) guess
+                notifyPlayer("You haven't made a guess yet, so why restart?");
             }
-            // Clearing 'messageLabel' and resetting the 'activePanelRow' to the first row
-            // of char boxes
-            notifyPlayer(null);
-            resetActiveCharPanel();
-        } else { // If the player has NOT made at least one(1) guess
-            notifyPlayer("You haven't made a guess yet, so why restart?");
+            restartMetric.record(start);
+        } catch (final RuntimeException failure) {
+            restartMetric.recordError(start, failure);
+            throw failure;
         }
     }
 
@@ -565,23 +607,152 @@ final public class Wordle implements KeyListener, ActionListener {
 
         // Setting the any miscellaneous text to the new color scheme
         panelMain.setBackground(currentBackgroundScheme);
-        for (final Component item : panelMain.getComponents()) {
-            if (item instanceof JLabel) {
-                final JLabel currentLabel = (JLabel) item;
-                currentLabel.setForeground(currentTextScheme);
-            }
+        title.setForeground(currentTextScheme);
+        messageLabel.setForeground(currentTextScheme);
+
+        // Recoloring every tile that isn't already colored by interpretGuess()
+        board.setTheme(currentBackgroundScheme, currentTextScheme);
+    }
+
+    /**
+     * Suggests the most informative next guess to the player, as picked by
+     * {@code Solver} from the words in the cache's word bank, looking patterns up
+     * in the bank's {@code FeedbackMatrix} when one has been built.
+     * The solver runs in the background, so the window stays responsive while it
+     * works; the hint is dropped if the player guesses or restarts in the meantime.
+     */
+    final protected void requestHint() {
+        if (!isPlaying()) {
+            notifyPlayer("There's no game to hint at yet.");
+            return;
+        } else if (state.isOver()) {
+            notifyPlayer("The game is over, so there's nothing left to hint at.");
+            return;
+        }
+        final WordBank bank = getWordleBank();
+        if (bank == null) {
+            notifyPlayer("There are no words to draw a hint from yet.");
+            return;
         }
 
-        // Recoloring all char boxes that aren't already marked or colored by
-        // interpretGuess()
-        for (int charBoxRow = attempt; charBoxRow < charBoxes.getComponentCount(); charBoxRow++) {
-            final JPanel currentPanel = (JPanel) charBoxes.getComponent(charBoxRow);
+        // Copying the guesses made so far, since 'state' must only be touched by the
+        // Event Dispatch Thread
+        final int hintedAttempt = state.getAttempt();
+        final int hintedAnswer = state.getAnswer();
+        final int[] guesses = new int[hintedAttempt];
+        final int[] patterns = new int[hintedAttempt];
+        for (int i = 0; i < hintedAttempt; i++) {
+            guesses[i] = state.getGuess(i);
+            patterns[i] = state.getPattern(i);
+        }
+        notifyPlayer("Thinking of a hint...");
+
+        new SwingWorker<int[], Void>() {
+            /** Returns the hint and the number of remaining candidates. */
+            @Override
+            protected int[] doInBackground() {
+                final int[] words = bank.toPackedArray();
+                final CandidateSet remaining = new CandidateIndex(words).newSet();
+                for (int i = 0; i < guesses.length; i++) {
+                    remaining.apply(guesses[i], patterns[i]);
+                }
+                final int[] candidates = remaining.toPackedArray();
+                final FeedbackMatrix matrix = getFeedbackMatrix(words);
+                final int hint = matrix != null ? Solver.bestGuess(matrix, words, candidates)
+                        : Solver.bestGuess(words, candidates);
+                return new int[] { hint, candidates.length };
+            }
+
+            @Override
+            protected void done() {
+                // Ignoring hints for a game or guess that has since moved on
+                if (!isPlaying() || state.getAttempt() != hintedAttempt || state.getAnswer() != hintedAnswer) {
+                    return;
+                }
+                try {
+                    final int[] hint = get();
+                    if (hint[0] == -1) {
+                        notifyPlayer("None of the words I know fit, so you're on your own.");
+                    } else {
+                        notifyPlayer(String.format("Try \"%s\" (%d possible word(s) left).",
+                                WordBank.unpack(hint[0], GameState.WORD_LENGTH), hint[1]));
+                    }
+                } catch (final InterruptedException | ExecutionException failed) {
+                    notifyPlayer("Couldn't come up with a hint this time.");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * @return The number of guesses the player has made in the current game.
+     */
+    final protected int getAttempt() {
+        // 'state' is only assigned once the window has been built
+        return state != null ? state.getAttempt() : 0;
+    }
+
+    /**
+     * @return {@code true} if there is a game in progress or just finished;
+     *         {@code false} while a new Wordle is being searched for, or after the
+     *         search came up empty.
+     */
+    final protected boolean isPlaying() {
+        return state != null && pendingWordle == null;
+    }
+
+    /**
+     * Starts a game with the next Wordle, taking it from {@code wordPool} or the
+     * word bank whenever possible. If both are empty, a Wordle is generated in
+     * the background instead, since that takes HTTP requests and may fail
+     * entirely while offline; the board shows a loading message and takes no
+     * input until the Wordle arrives.
+     */
+    final protected void startNextGame() {
+        String word = wordPool != null ? wordPool.poll() : null;
+        if (word == null) { // A single read of the mapped bank, if there is one
+            word = generateWordle(getWordleBank());
+        }
+        if (word != null) {
+            beginGame(word);
+            return;
+        }
 
-            for (int i = 0; i < currentPanel.getComponentCount(); i++) {
-                currentPanel.getComponent(i).setBackground(currentBackgroundScheme);
-                currentPanel.getComponent(i).setForeground(currentTextScheme);
+        // The previous game is over either way, so there is nothing to play meanwhile
+        state = null;
+        board.clear();
+        board.finish();
+        notifyPlayer("Loading a new Wordle...");
+        final CompletableFuture<String> search = CompletableFuture.supplyAsync(Wordle::generateWordle,
+                task -> Thread.ofVirtual().name("Wordle-search").start(task));
+        pendingWordle = search;
+        search.whenComplete((found, failure) -> SwingUtilities.invokeLater(() -> {
+            if (pendingWordle != search) {
+                return;
+            }
+            pendingWordle = null;
+            if (found != null) {
+                beginGame(found);
+            } else {
+                notifyPlayer("Couldn't find a new Wordle; check your connection and press retry.");
             }
+        }));
+    }
+
+    /**
+     * Resets the game and the board to play {@code word}.
+     * 
+     * @param word A valid five-letter English word
+     */
+    final protected void beginGame(final String word) {
+        System.out.println(word);
+        if (state == null) {
+            state = new GameState(word);
+        } else {
+            state.reset(word);
         }
+        board.clear();
+        notifyPlayer(null);
     }
 
     /**
@@ -593,43 +764,3 @@ final public class Wordle implements KeyListener, ActionListener {
         messageLabel.setText(message);
     }
 }
-
-/**
- * Used to develop a cache of potential Wordles for quick access. This allows
- * the game to skip over some particularly long HTTP requests from
- * {@code RandomWord}
- */
-final class caching extends Thread {
-    public void run() {
-        final File cache = new File("cache");
-
-        // Adds onto the existing cache
-        // Will continue until thread death or the file containing more than 250 lines
-        // (words)
-        // Each line in the cache should contain a five-letter word and line separator
-        // character(s), hence the addition seen below
-        while (this.isAlive() && (int) cache.length() / (5 + System.lineSeparator().length()) < 250) {
-            RandomWord.generateWordsInFile(cache, 25, 5);
-        }
-    }
-}
-
-/**
- * Custom {@code DocumentFilter} used to filter the input into charboxes to
- * ensure there can only be one alphabetical character at a time.
- */
-final class charOnlyFilter extends DocumentFilter {
-    @Override
-    public void replace(final FilterBypass fb, final int offset, final int length, final String text,
-            final AttributeSet attrs)
-            throws BadLocationException {
-        // Check to ensure text does not go past one character and that that one
-        // character is alphabetical
-        if (text != null && fb.getDocument().getLength() + text.length() <= 1 && text.matches("[a-zA-Z]+")) {
-            // Forcing uppercase for aesthetics
-            super.replace(fb, offset, length, text.toUpperCase(), attrs);
-        } else if (text == null) { // Allows for the clearing of char boxes
-            super.replace(fb, offset, length, null, attrs);
-        }
-    }
-}
\ No newline at end of file